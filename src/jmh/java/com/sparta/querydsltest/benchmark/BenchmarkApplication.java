@@ -0,0 +1,53 @@
+package com.sparta.querydsltest.benchmark;
+
+import java.util.function.IntBinaryOperator;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sparta.querydsltest.QueryDslTestApplication;
+import com.sparta.querydsltest.entity.Member;
+import com.sparta.querydsltest.entity.Team;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * DB가 필요한 벤치마크가 같이 쓰는 애플리케이션 컨텍스트.
+ *
+ * 벤치마크마다 이름이 다른 인메모리 H2에 스키마를 만들고 웹 서버, 워밍업, SQL 로그 없이 띄운다.
+ */
+final class BenchmarkApplication {
+
+	private BenchmarkApplication() {
+	}
+
+	static ConfigurableApplicationContext start(String database, String... properties) {
+		return new SpringApplicationBuilder(QueryDslTestApplication.class)
+			.web(WebApplicationType.NONE)
+			.properties(
+				"spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+				"spring.jpa.hibernate.ddl-auto=create",
+				"spring.jpa.properties.hibernate.show_sql=false",
+				"warmup.enabled=false")
+			.properties(properties)
+			.run();
+	}
+
+	// 팀 teams개에 팀마다 회원 membersPerTeam명. 나이는 age(팀 번호, 팀 안 번호)
+	static void seed(ConfigurableApplicationContext context, int teams, int membersPerTeam, IntBinaryOperator age) {
+		EntityManager em = context.getBean(EntityManager.class);
+		context.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+			for (int t = 0; t < teams; t++) {
+				Team team = new Team("team" + t);
+				em.persist(team);
+				for (int i = 0; i < membersPerTeam; i++) {
+					em.persist(new Member("member" + t + "_" + i, age.applyAsInt(t, i), team));
+				}
+				em.flush();
+				em.clear();
+			}
+		});
+	}
+}
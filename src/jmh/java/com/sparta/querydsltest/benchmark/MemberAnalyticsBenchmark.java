@@ -0,0 +1,132 @@
+package com.sparta.querydsltest.benchmark;
+
+import static com.querydsl.jpa.JPAExpressions.*;
+import static com.sparta.querydsltest.entity.QMember.*;
+import static com.sparta.querydsltest.entity.QTeam.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.sparta.querydsltest.dto.MemberAgeRankDto;
+import com.sparta.querydsltest.entity.QMember;
+import com.sparta.querydsltest.repository.MemberAnalyticsRepository;
+
+/**
+ * MemberAnalyticsRepository의 윈도우 함수 쿼리와 QuerydslBasicTest의 JPAExpressions 상관 서브쿼리 방식을
+ * 같은 데이터에서 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class MemberAnalyticsBenchmark {
+
+	static final int TEAMS = 20;
+	static final int MEMBERS_PER_TEAM = 200;
+	static final int TOP = 3;
+
+	ConfigurableApplicationContext context;
+	JPAQueryFactory queryFactory;
+	MemberAnalyticsRepository memberAnalyticsRepository;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkApplication.start("member-analytics");
+		BenchmarkApplication.seed(context, TEAMS, MEMBERS_PER_TEAM, (t, i) -> (i * 37 + t) % 90 + 10);
+		queryFactory = context.getBean(JPAQueryFactory.class);
+		memberAnalyticsRepository = context.getBean(MemberAnalyticsRepository.class);
+
+		// 두 방식이 같은 결과를 내야 비교할 의미가 있다.
+		if (!rankWindow().equals(rankSubquery())) {
+			throw new IllegalStateException("window and subquery rankings differ");
+		}
+		if (!new HashSet<>(memberIds(topWindow())).equals(new HashSet<>(memberIds(topSubquery())))) {
+			throw new IllegalStateException("window and subquery top-" + TOP + " differ");
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<MemberAgeRankDto> rankWindow() {
+		return memberAnalyticsRepository.rankByAgeInTeam(null, PageRequest.of(0, TEAMS * MEMBERS_PER_TEAM)).getContent();
+	}
+
+	// 순위 = 같은 팀에서 나보다 나이 많은 회원 수 + 1, 평균 = 같은 팀 평균 (행마다 서브쿼리 두 번)
+	@Benchmark
+	public List<MemberAgeRankDto> rankSubquery() {
+		QMember older = new QMember("older");
+		QMember sameTeam = new QMember("sameTeam");
+		return queryFactory
+			.select(Projections.constructor(MemberAgeRankDto.class,
+				member.id,
+				member.username,
+				member.age,
+				team.id,
+				team.name,
+				select(older.count().add(1L)).from(older).where(older.team.eq(member.team), older.age.gt(member.age)),
+				select(sameTeam.age.avg()).from(sameTeam).where(sameTeam.team.eq(member.team))))
+			.from(member)
+			.join(member.team, team)
+			.orderBy(team.id.asc(), member.age.desc(), member.id.asc())
+			.fetch();
+	}
+
+	@Benchmark
+	public List<MemberAgeRankDto> topWindow() {
+		return memberAnalyticsRepository.topByAgePerTeam(TOP);
+	}
+
+	// 나보다 (나이가 많거나, 같은 나이에 id가 작은) 팀원이 TOP명 미만인 회원
+	@Benchmark
+	public List<MemberAgeRankDto> topSubquery() {
+		QMember ahead = new QMember("ahead");
+		QMember sameTeam = new QMember("sameTeam");
+		QMember filter = new QMember("filter");
+		return queryFactory
+			.select(Projections.constructor(MemberAgeRankDto.class,
+				member.id,
+				member.username,
+				member.age,
+				team.id,
+				team.name,
+				select(ahead.count().add(1L)).from(ahead)
+					.where(ahead.team.eq(member.team), ahead.age.gt(member.age)
+						.or(ahead.age.eq(member.age).and(ahead.id.lt(member.id)))),
+				select(sameTeam.age.avg()).from(sameTeam).where(sameTeam.team.eq(member.team))))
+			.from(member)
+			.join(member.team, team)
+			.where(select(filter.count()).from(filter)
+				.where(filter.team.eq(member.team), filter.age.gt(member.age)
+					.or(filter.age.eq(member.age).and(filter.id.lt(member.id))))
+				.lt((long)TOP))
+			.fetch();
+	}
+
+	private static List<Long> memberIds(List<MemberAgeRankDto> rows) {
+		return rows.stream().map(MemberAgeRankDto::getMemberId).toList();
+	}
+}
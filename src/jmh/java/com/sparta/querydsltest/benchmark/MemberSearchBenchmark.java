@@ -0,0 +1,85 @@
+package com.sparta.querydsltest.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.sparta.querydsltest.dto.MemberSearchCondition;
+import com.sparta.querydsltest.dto.MemberTeamDto;
+import com.sparta.querydsltest.repository.MemberJdbcSearch;
+import com.sparta.querydsltest.repository.MemberRepository;
+
+/**
+ * 같은 조건의 MemberTeamSearch.search를 JPA(QueryDSL) 구현과 JDBC 구현(MemberJdbcSearch)으로 비교한다.
+ * 호출당 CPU와 할당은 -prof gc 등 JMH 프로파일러로 본다.
+ *
+ * small: 한 팀의 나이 조건 (수십 건), large: 전체 나이 조건 (수천 건), limited: /v1의 건수 제한 조회 (100 + 1건)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberSearchBenchmark {
+
+	static final int TEAMS = 10;
+	static final int MEMBERS_PER_TEAM = 500;
+	static final int LIMIT = 100;
+
+	@Param({"small", "large", "limited"})
+	public String shape;
+
+	ConfigurableApplicationContext context;
+	MemberRepository memberRepository;
+	MemberJdbcSearch memberJdbcSearch;
+	MemberSearchCondition condition;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkApplication.start("member-search");
+		BenchmarkApplication.seed(context, TEAMS, MEMBERS_PER_TEAM, (t, i) -> i % 90 + 10);
+		memberRepository = context.getBean(MemberRepository.class);
+		memberJdbcSearch = context.getBean(MemberJdbcSearch.class);
+
+		condition = new MemberSearchCondition();
+		if (shape.equals("small")) {
+			condition.setTeamName("team3");
+			condition.setAgeGoe(95);
+		} else {
+			condition.setAgeGoe(50);
+		}
+		if (jpa().size() != jdbc().size()) {
+			throw new IllegalStateException("JPA and JDBC searches returned different row counts for " + shape);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<MemberTeamDto> jpa() {
+		return shape.equals("limited") ? memberRepository.search(condition, LIMIT) : memberRepository.search(condition);
+	}
+
+	@Benchmark
+	public List<MemberTeamDto> jdbc() {
+		return shape.equals("limited") ? memberJdbcSearch.search(condition, LIMIT) : memberJdbcSearch.search(condition);
+	}
+}
@@ -0,0 +1,88 @@
+package com.sparta.querydsltest.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.sparta.querydsltest.dto.MemberTeamDto;
+import com.sparta.querydsltest.web.MemberTeamRowsCodec;
+
+/**
+ * JSON / CBOR / member rows(MemberTeamRowsCodec) 포맷의 인코딩·디코딩 시간을 비교한다.
+ * 인코딩 결과 크기는 포맷마다 고정이라 setup에서 rows < cbor < json인지만 확인한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberTeamFormatBenchmark {
+
+	static final int ROWS = 10_000;
+	static final TypeReference<List<MemberTeamDto>> ROWS_TYPE = new TypeReference<>() {
+	};
+
+	@Param({"json", "cbor", "rows"})
+	public String format;
+
+	final ObjectMapper json = new ObjectMapper();
+	final ObjectMapper cbor = new CBORMapper();
+	List<MemberTeamDto> rows;
+	byte[] encoded;
+
+	@Setup
+	public void setUp() throws IOException {
+		rows = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			long teamId = i % 10;
+			rows.add(new MemberTeamDto((long)i + 1, "member" + (i + 1), i % 100, teamId, "team" + teamId));
+		}
+		int jsonBytes = json.writeValueAsBytes(rows).length;
+		int cborBytes = cbor.writeValueAsBytes(rows).length;
+		int rowBytes = MemberTeamRowsCodec.encode(rows).length;
+		if (!(rowBytes < cborBytes && cborBytes < jsonBytes)) {
+			throw new IllegalStateException(
+				"unexpected sizes: rows " + rowBytes + ", cbor " + cborBytes + ", json " + jsonBytes);
+		}
+
+		encoded = encode();
+		if (!decode().equals(rows)) {
+			throw new IllegalStateException(format + " did not round-trip");
+		}
+	}
+
+	@Benchmark
+	public byte[] encode() throws IOException {
+		return switch (format) {
+			case "json" -> json.writeValueAsBytes(rows);
+			case "cbor" -> cbor.writeValueAsBytes(rows);
+			default -> MemberTeamRowsCodec.encode(rows);
+		};
+	}
+
+	@Benchmark
+	public List<MemberTeamDto> decode() throws IOException {
+		return switch (format) {
+			case "json" -> json.readValue(encoded, ROWS_TYPE);
+			case "cbor" -> cbor.readValue(encoded, ROWS_TYPE);
+			default -> MemberTeamRowsCodec.decodeList(encoded);
+		};
+	}
+}
@@ -0,0 +1,100 @@
+package com.sparta.querydsltest.benchmark;
+
+import static com.sparta.querydsltest.entity.QMember.*;
+import static com.sparta.querydsltest.entity.QTeam.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import com.querydsl.core.types.QTuple;
+import com.sparta.querydsltest.dto.MemberTeamDto;
+import com.sparta.querydsltest.web.MemberTeamJsonWriter;
+
+/**
+ * 같은 JDBC 행(Object[])에서 시작해 (1) QBean으로 DTO를 만든 뒤 Jackson으로 쓰는 기존 경로와
+ * (2) Tuple을 MemberTeamJsonWriter로 바로 쓰는 경로를 비교한다. 행당 할당량은 -prof gc로 본다.
+ *
+ * 출력 버퍼 할당이 측정에 섞이지 않도록 OutputStream.nullOutputStream()에 쓴다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberTeamJsonBenchmark {
+
+	static final int ROWS = 10_000;
+
+	static final QBean<MemberTeamDto> DTO = Projections.fields(MemberTeamDto.class,
+		member.id.as("memberId"),
+		member.username,
+		member.age,
+		team.id.as("teamId"),
+		team.name.as("teamName"));
+	static final QTuple TUPLE = Projections.tuple(member.id, member.username, member.age, team.id, team.name);
+
+	final ObjectMapper objectMapper = new ObjectMapper();
+	final MemberTeamJsonWriter writer = new MemberTeamJsonWriter(objectMapper);
+	final OutputStream out = OutputStream.nullOutputStream();
+	List<Object[]> rows;
+
+	@Setup
+	public void setUp() throws IOException {
+		rows = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			long teamId = i % 10;
+			rows.add(new Object[] {(long)i + 1, "member" + (i + 1), i % 100, teamId, "team" + teamId});
+		}
+
+		// 두 경로가 같은 JSON을 써야 비교할 의미가 있다.
+		ByteArrayOutputStream dto = new ByteArrayOutputStream();
+		ByteArrayOutputStream direct = new ByteArrayOutputStream();
+		writeDto(dto);
+		writeDirect(direct);
+		if (!Arrays.equals(dto.toByteArray(), direct.toByteArray())) {
+			throw new IllegalStateException("dto and direct paths wrote different JSON");
+		}
+	}
+
+	@Benchmark
+	public void dto() throws IOException {
+		writeDto(out);
+	}
+
+	@Benchmark
+	public long direct() throws IOException {
+		return writeDirect(out);
+	}
+
+	private void writeDto(OutputStream target) throws IOException {
+		List<MemberTeamDto> content = new ArrayList<>(rows.size());
+		for (Object[] row : rows) {
+			content.add(DTO.newInstance(row));
+		}
+		objectMapper.writeValue(target, content);
+	}
+
+	private long writeDirect(OutputStream target) throws IOException {
+		return writer.writeList(rows.stream().map(TUPLE::newInstance), target);
+	}
+}
@@ -0,0 +1,70 @@
+package com.sparta.querydsltest.loadtest;
+
+import static java.nio.charset.StandardCharsets.*;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.util.Random;
+
+/**
+ * 엔드포인트 가중치와 MemberSearchCondition 필드 조합을 무작위로 골라 요청 URI를 만든다.
+ * 이름 20%, 팀 50%, 최소 나이 40%, 최대 나이 30% 확률로 조건을 넣는다.
+ */
+final class ConditionMix {
+
+	record Request(String endpoint, URI uri) {
+	}
+
+	private final String baseUrl;
+	private final LoadTestOptions options;
+	private final NameDistribution names = new NameDistribution();
+	private final Random random;
+
+	ConditionMix(String baseUrl, LoadTestOptions options) {
+		this.baseUrl = baseUrl;
+		this.options = options;
+		this.random = new Random(options.seed() + 1);
+	}
+
+	// 디스패처 스레드 하나에서만 호출한다.
+	Request next() {
+		String endpoint = endpoint();
+		StringBuilder query = new StringBuilder();
+		if (random.nextInt(100) < 20) {
+			append(query, "username", names.username(random));
+		}
+		if (random.nextInt(100) < 50) {
+			append(query, "teamName", NameDistribution.teamName(random.nextInt(Math.max(1, options.teams()))));
+		}
+		Integer ageGoe = null;
+		if (random.nextInt(100) < 40) {
+			ageGoe = 18 + random.nextInt(43);
+			append(query, "ageGoe", String.valueOf(ageGoe));
+		}
+		if (random.nextInt(100) < 30) {
+			int from = ageGoe != null ? ageGoe : 18;
+			append(query, "ageLoe", String.valueOf(from + 5 + random.nextInt(26)));
+		}
+		if (!endpoint.equals("v1")) {
+			append(query, "page", String.valueOf(random.nextInt(5)));
+			append(query, "size", String.valueOf(options.pageSize()));
+		}
+		return new Request(endpoint, URI.create(baseUrl + "/" + endpoint + "/members" + query));
+	}
+
+	private String endpoint() {
+		int total = options.v1Weight() + options.v2Weight() + options.v3Weight();
+		int pick = random.nextInt(Math.max(1, total));
+		if (pick < options.v1Weight()) {
+			return "v1";
+		}
+		return pick < options.v1Weight() + options.v2Weight() ? "v2" : "v3";
+	}
+
+	private void append(StringBuilder query, String name, String value) {
+		query.append(query.length() == 0 ? '?' : '&')
+			.append(name)
+			.append('=')
+			.append(URLEncoder.encode(value, UTF_8));
+	}
+}
@@ -0,0 +1,88 @@
+package com.sparta.querydsltest.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.sparta.querydsltest.QueryDslTestApplication;
+
+/**
+ * /v1, /v2, /v3 회원 검색 부하 테스트.
+ * 엔드포인트별 처리량과 p50/p99/p99.9 지연시간을 출력하고, 빌드 간 비교를 위해
+ * HdrHistogram 백분위 분포(.hgrm)를 reportDir에 남긴다.
+ */
+public class LoadTestMain {
+
+	public static void main(String[] args) throws IOException {
+		LoadTestOptions options = LoadTestOptions.parse(args);
+
+		ConfigurableApplicationContext context = null;
+		String baseUrl = options.baseUrl();
+		if (baseUrl == null) {
+			context = startApplication(options);
+			SyntheticDataSet.seed(context, options);
+			baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+		}
+
+		try {
+			Map<String, OpenModelDriver.EndpointStats> stats = new OpenModelDriver(baseUrl, options).run();
+			report(stats, options);
+		} finally {
+			if (context != null) {
+				context.close();
+			}
+		}
+	}
+
+	private static ConfigurableApplicationContext startApplication(LoadTestOptions options) {
+		List<String> args = new ArrayList<>(List.of(
+			"--server.port=0",
+			"--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+			"--spring.jpa.hibernate.ddl-auto=create",
+			"--spring.jpa.properties.hibernate.show_sql=false",
+			"--spring.jpa.properties.hibernate.jdbc.batch_size=100",
+			"--logging.level.org.hibernate.SQL=warn"));
+		// 뒤에 오는 인자가 우선하므로 사용자가 넘긴 값으로 덮어쓸 수 있다.
+		args.addAll(options.springArgs());
+		return SpringApplication.run(QueryDslTestApplication.class, args.toArray(String[]::new));
+	}
+
+	private static void report(Map<String, OpenModelDriver.EndpointStats> stats, LoadTestOptions options)
+		throws IOException {
+		Path reportDir = Path.of(options.reportDir());
+		Files.createDirectories(reportDir);
+
+		System.out.printf("rate=%d/s duration=%ds%n", options.rate(), options.durationSeconds());
+		System.out.printf("%-4s %10s %8s %8s %8s %10s %10s %10s %10s%n",
+			"", "req/s", "ok", "503", "errors", "p50(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+		for (Map.Entry<String, OpenModelDriver.EndpointStats> entry : stats.entrySet()) {
+			OpenModelDriver.EndpointStats endpoint = entry.getValue();
+			long count = endpoint.latency.getTotalCount();
+			System.out.printf("%-4s %10.1f %8d %8d %8d %10.2f %10.2f %10.2f %10.2f%n",
+				entry.getKey(),
+				count / (double)options.durationSeconds(),
+				endpoint.ok.sum(),
+				endpoint.rejected.sum(),
+				endpoint.errors.sum(),
+				millis(endpoint.latency.getValueAtPercentile(50.0)),
+				millis(endpoint.latency.getValueAtPercentile(99.0)),
+				millis(endpoint.latency.getValueAtPercentile(99.9)),
+				millis(endpoint.latency.getMaxValue()));
+
+			try (PrintStream out = new PrintStream(Files.newOutputStream(reportDir.resolve(entry.getKey() + ".hgrm")))) {
+				endpoint.latency.outputPercentileDistribution(out, 1_000_000.0);
+			}
+		}
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+}
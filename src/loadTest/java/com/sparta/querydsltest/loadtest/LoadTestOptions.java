@@ -0,0 +1,66 @@
+package com.sparta.querydsltest.loadtest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * key=value 형식의 인자. "--"로 시작하는 인자는 그대로 스프링 애플리케이션에 넘긴다.
+ *
+ * baseUrl이 없으면 애플리케이션을 같은 JVM에서 인메모리 H2로 띄우고 데이터를 생성한다.
+ */
+record LoadTestOptions(
+	String baseUrl,
+	int teams,
+	int membersPerTeam,
+	int rate,
+	int warmupSeconds,
+	int durationSeconds,
+	int v1Weight,
+	int v2Weight,
+	int v3Weight,
+	int pageSize,
+	int clientThreads,
+	long seed,
+	String reportDir,
+	List<String> springArgs
+) {
+
+	static LoadTestOptions parse(String[] args) {
+		Map<String, String> values = new HashMap<>();
+		List<String> springArgs = new ArrayList<>();
+		for (String arg : args) {
+			if (arg.startsWith("--")) {
+				springArgs.add(arg);
+				continue;
+			}
+			int separator = arg.indexOf('=');
+			if (separator < 0) {
+				throw new IllegalArgumentException("expected key=value but was: " + arg);
+			}
+			values.put(arg.substring(0, separator), arg.substring(separator + 1));
+		}
+
+		return new LoadTestOptions(
+			values.get("baseUrl"),
+			intValue(values, "teams", 20),
+			intValue(values, "membersPerTeam", 500),
+			intValue(values, "rate", 200),
+			intValue(values, "warmup", 10),
+			intValue(values, "duration", 30),
+			intValue(values, "v1", 1),
+			intValue(values, "v2", 1),
+			intValue(values, "v3", 2),
+			intValue(values, "pageSize", 20),
+			intValue(values, "clientThreads", 16),
+			Long.parseLong(values.getOrDefault("seed", "42")),
+			values.getOrDefault("reportDir", "loadtest"),
+			springArgs);
+	}
+
+	private static int intValue(Map<String, String> values, String key, int defaultValue) {
+		String value = values.get(key);
+		return value != null ? Integer.parseInt(value) : defaultValue;
+	}
+}
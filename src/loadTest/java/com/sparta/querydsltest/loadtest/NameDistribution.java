@@ -0,0 +1,50 @@
+package com.sparta.querydsltest.loadtest;
+
+import java.util.Random;
+
+/**
+ * 회원 이름과 나이 분포.
+ * 이름은 Zipf 분포(흔한 이름이 훨씬 자주 나옴) + 숫자 접미사, 나이는 평균 38세 정규분포(18~80)를 따른다.
+ * 데이터 생성과 검색 조건 생성이 같은 분포를 써서 이름 검색이 실제로 결과를 찾게 한다.
+ */
+final class NameDistribution {
+
+	private static final String[] NAMES = {
+		"kim", "lee", "park", "choi", "jung", "kang", "cho", "yoon", "jang", "lim",
+		"han", "oh", "seo", "shin", "kwon", "hwang", "ahn", "song", "jeon", "hong",
+		"yoo", "ko", "moon", "yang", "son", "bae", "baek", "heo", "nam", "sim",
+		"noh", "ha", "kwak", "sung", "cha", "joo", "woo", "koo", "min", "ryu"
+	};
+	private static final int SUFFIXES = 100;
+
+	private final double[] cumulative = new double[NAMES.length];
+
+	NameDistribution() {
+		double sum = 0;
+		for (int i = 0; i < NAMES.length; i++) {
+			sum += 1.0 / (i + 1);
+			cumulative[i] = sum;
+		}
+		for (int i = 0; i < NAMES.length; i++) {
+			cumulative[i] /= sum;
+		}
+	}
+
+	String username(Random random) {
+		double sample = random.nextDouble();
+		int index = 0;
+		while (index < NAMES.length - 1 && cumulative[index] < sample) {
+			index++;
+		}
+		return NAMES[index] + random.nextInt(SUFFIXES);
+	}
+
+	int age(Random random) {
+		long age = Math.round(38 + 12 * random.nextGaussian());
+		return (int)Math.max(18, Math.min(80, age));
+	}
+
+	static String teamName(int index) {
+		return "team" + index;
+	}
+}
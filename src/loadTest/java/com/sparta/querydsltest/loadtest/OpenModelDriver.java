@@ -0,0 +1,104 @@
+package com.sparta.querydsltest.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * 고정 도착률(open model)로 요청을 보낸다.
+ *
+ * i번째 요청의 예정 시각은 start + i * interval로 미리 정해지고, 지연시간은 실제 전송 시각이 아니라
+ * 예정 시각부터 잰다. 서버가 느려져 디스패처가 밀려도 그 대기 시간이 지연시간에 포함되므로
+ * coordinated omission이 생기지 않는다.
+ */
+final class OpenModelDriver {
+
+	static final class EndpointStats {
+		final Histogram latency = new ConcurrentHistogram(3);
+		final LongAdder ok = new LongAdder();
+		final LongAdder rejected = new LongAdder();
+		final LongAdder errors = new LongAdder();
+	}
+
+	private final LoadTestOptions options;
+	private final ConditionMix mix;
+	private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+	OpenModelDriver(String baseUrl, LoadTestOptions options) {
+		this.options = options;
+		this.mix = new ConditionMix(baseUrl, options);
+	}
+
+	Map<String, EndpointStats> run() {
+		ExecutorService clientExecutor = Executors.newFixedThreadPool(options.clientThreads());
+		HttpClient client = HttpClient.newBuilder()
+			.executor(clientExecutor)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+		Phaser outstanding = new Phaser(1);
+
+		long interval = TimeUnit.SECONDS.toNanos(1) / options.rate();
+		long start = System.nanoTime();
+		long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+		long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+
+		try {
+			for (long i = 0; ; i++) {
+				long intended = start + i * interval;
+				if (intended >= end) {
+					break;
+				}
+				long wait = intended - System.nanoTime();
+				if (wait > 0) {
+					LockSupport.parkNanos(wait);
+				}
+
+				ConditionMix.Request request = mix.next();
+				boolean measured = intended >= measureFrom;
+				outstanding.register();
+				client.sendAsync(HttpRequest.newBuilder(request.uri()).timeout(Duration.ofSeconds(30)).GET().build(),
+						HttpResponse.BodyHandlers.discarding())
+					.whenComplete((response, error) -> {
+						try {
+							if (measured) {
+								record(request.endpoint(), System.nanoTime() - intended, response, error);
+							}
+						} finally {
+							outstanding.arriveAndDeregister();
+						}
+					});
+			}
+			outstanding.arriveAndAwaitAdvance();
+		} finally {
+			clientExecutor.shutdownNow();
+		}
+		return new TreeMap<>(stats);
+	}
+
+	private void record(String endpoint, long latencyNanos, HttpResponse<Void> response, Throwable error) {
+		EndpointStats endpointStats = stats.computeIfAbsent(endpoint, key -> new EndpointStats());
+		endpointStats.latency.recordValue(latencyNanos);
+		if (error != null) {
+			endpointStats.errors.increment();
+		} else if (response.statusCode() == 503) {
+			endpointStats.rejected.increment();
+		} else if (response.statusCode() >= 400) {
+			endpointStats.errors.increment();
+		} else {
+			endpointStats.ok.increment();
+		}
+	}
+}
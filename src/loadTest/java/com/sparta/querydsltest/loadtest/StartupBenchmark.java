@@ -0,0 +1,107 @@
+package com.sparta.querydsltest.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 애플리케이션을 별도 프로세스로 띄워 첫 /v1/members 200 응답까지 걸린 시간을 잰다.
+ *
+ * 인자: java=<실행파일> jar=<jar> runs=5 port=18080 timeout=120
+ *       jvm:<JVM 옵션> (여러 번 가능)  app:<애플리케이션 인자> (여러 번 가능)
+ */
+public class StartupBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		String java = "java";
+		String jar = null;
+		int runs = 5;
+		int port = 18080;
+		int timeoutSeconds = 120;
+		List<String> jvmArgs = new ArrayList<>();
+		List<String> appArgs = new ArrayList<>();
+		for (String arg : args) {
+			if (arg.startsWith("jvm:")) {
+				jvmArgs.add(arg.substring(4));
+			} else if (arg.startsWith("app:")) {
+				appArgs.add(arg.substring(4));
+			} else if (arg.startsWith("java=")) {
+				java = arg.substring(5);
+			} else if (arg.startsWith("jar=")) {
+				jar = arg.substring(4);
+			} else if (arg.startsWith("runs=")) {
+				runs = Integer.parseInt(arg.substring(5));
+			} else if (arg.startsWith("port=")) {
+				port = Integer.parseInt(arg.substring(5));
+			} else if (arg.startsWith("timeout=")) {
+				timeoutSeconds = Integer.parseInt(arg.substring(8));
+			} else {
+				throw new IllegalArgumentException("unknown argument: " + arg);
+			}
+		}
+		if (jar == null) {
+			throw new IllegalArgumentException("jar=<path> is required");
+		}
+
+		List<String> command = new ArrayList<>();
+		command.add(java);
+		command.addAll(jvmArgs);
+		command.add("-jar");
+		command.add(jar);
+		command.add("--server.port=" + port);
+		command.addAll(appArgs);
+		System.out.println(String.join(" ", command));
+
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+		URI uri = URI.create("http://localhost:" + port + "/v1/members?ageGoe=1000");
+		long[] millis = new long[runs];
+		for (int run = 0; run < runs; run++) {
+			millis[run] = timeToFirstResponse(command, client, uri, timeoutSeconds);
+			System.out.printf("run %d: %d ms%n", run + 1, millis[run]);
+		}
+
+		Arrays.sort(millis);
+		System.out.printf("time to first /v1/members response: min %d ms, median %d ms, max %d ms (%d runs)%n",
+			millis[0], millis[runs / 2], millis[runs - 1], runs);
+	}
+
+	private static long timeToFirstResponse(List<String> command, HttpClient client, URI uri, int timeoutSeconds)
+		throws IOException, InterruptedException {
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(command)
+			.redirectOutput(ProcessBuilder.Redirect.DISCARD)
+			.redirectError(ProcessBuilder.Redirect.INHERIT)
+			.start();
+		try {
+			long deadline = start + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+			while (System.nanoTime() < deadline) {
+				if (!process.isAlive()) {
+					throw new IllegalStateException("application exited with " + process.exitValue());
+				}
+				try {
+					HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).GET().build(),
+						HttpResponse.BodyHandlers.discarding());
+					if (response.statusCode() == 200) {
+						return (System.nanoTime() - start) / 1_000_000;
+					}
+				} catch (IOException e) {
+					// 아직 포트가 열리지 않았다.
+				}
+				Thread.sleep(5);
+			}
+			throw new IllegalStateException("no successful response within " + timeoutSeconds + "s");
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly().waitFor();
+			}
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.sparta.querydsltest.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sparta.querydsltest.entity.Member;
+import com.sparta.querydsltest.entity.Team;
+
+import jakarta.persistence.EntityManager;
+
+// MemberSeeder와 같은 모양(팀 N개, 팀마다 회원 M명)으로 데이터를 만든다.
+final class SyntheticDataSet {
+
+	private static final int BATCH_SIZE = 1_000;
+
+	private SyntheticDataSet() {
+	}
+
+	static void seed(ApplicationContext context, LoadTestOptions options) {
+		EntityManager em = context.getBean(EntityManager.class);
+		TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		NameDistribution names = new NameDistribution();
+		Random random = new Random(options.seed());
+
+		List<Team> teams = new ArrayList<>(options.teams());
+		tx.executeWithoutResult(status -> {
+			for (int i = 0; i < options.teams(); i++) {
+				Team team = new Team(NameDistribution.teamName(i));
+				em.persist(team);
+				teams.add(team);
+			}
+		});
+
+		long total = (long)options.teams() * options.membersPerTeam();
+		long start = System.nanoTime();
+		for (long from = 0; from < total; from += BATCH_SIZE) {
+			long batchStart = from;
+			tx.executeWithoutResult(status -> {
+				long batchEnd = Math.min(batchStart + BATCH_SIZE, total);
+				for (long i = batchStart; i < batchEnd; i++) {
+					Team team = em.getReference(Team.class, teams.get((int)(i % teams.size())).getId());
+					em.persist(new Member(names.username(random), names.age(random), team));
+				}
+				em.flush();
+				em.clear();
+			});
+		}
+		System.out.printf("seeded %d teams, %d members in %d ms%n",
+			teams.size(), total, (System.nanoTime() - start) / 1_000_000);
+	}
+}
@@ -1,14 +1,24 @@
 package com.sparta.querydsltest;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateQueryMetrics;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.annotation.Bean;
 
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.sparta.querydsltest.cache.ClusterInvalidation;
+import com.sparta.querydsltest.cache.MemberLookupCache;
 
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class QueryDslTestApplication {
 
 	public static void main(String[] args) {
@@ -20,4 +30,19 @@ public class QueryDslTestApplication {
 		return new JPAQueryFactory(em);
 	}
 
+	// hibernate.generate_statistics가 켜져 있을 때 쿼리별 실행 통계를 메트릭으로 노출한다.
+	// 세션/캐시/플랜 캐시 통계(HibernateMetrics)는 Boot의 HibernateMetricsAutoConfiguration이 등록한다.
+	@Bean
+	MeterBinder hibernateQueryMetrics(EntityManagerFactory emf) {
+		return registry -> new HibernateQueryMetrics(emf.unwrap(SessionFactory.class), "entityManagerFactory",
+			Tags.empty()).bindTo(registry);
+	}
+
+	// 지연 초기화(fast 프로필)에서도 바로 만들어야 하는 빈. @Scheduled는 생성된 빈에만 등록된다.
+	// ClusterInvalidation은 첫 쓰기 전에도 다른 노드의 알림을 받아야 한다.
+	@Bean
+	static LazyInitializationExcludeFilter eagerBeans() {
+		return LazyInitializationExcludeFilter.forBeanTypes(MemberLookupCache.class, ClusterInvalidation.class);
+	}
+
 }
@@ -0,0 +1,12 @@
+package com.sparta.querydsltest;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// @Scheduled 작업이 있는 기능(MemberLookupCache, MemberExportScheduler)이 켜져 있을 때만 스케줄러를 만든다.
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+@ConditionalOnExpression("${member.snapshot.enabled:false} or ${member.export.enabled:false}")
+public class SchedulingConfig {
+}
@@ -0,0 +1,197 @@
+package com.sparta.querydsltest.cache;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 노드 간 캐시 무효화.
+ *
+ * 이 노드의 변경은 트랜잭션마다 키를 모아 커밋 후 발행 큐에 넣고, 발행 스레드가 그동안 쌓인 키를
+ * 중복 제거해 한 번에 보낸다. 다른 노드가 보낸 키로는 MemberLookupCache 항목을 지우고 DataVersion을 올린다.
+ * (받은 키를 반영해도 엔티티 리스너를 거치지 않으므로 다시 발행되지 않는다)
+ *
+ * 키: m:{memberId}, t:{teamId}, v:{teamName} (팀에 회원 추가), e (행이 팀 사이를 옮겨갈 수 있는 변경)
+ * 팀명이 너무 길어 알림에 들어가지 않는 v: 키는 더 넓은 e로 바꿔 보낸다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "cache.invalidation", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ClusterInvalidation implements InitializingBean, DisposableBean {
+
+	static final String MEMBER = "m:";
+	static final String TEAM = "t:";
+	static final String TEAM_VERSION = "v:";
+	static final String EPOCH = "e";
+
+	private final InvalidationTransport transport;
+	private final InvalidationProperties properties;
+	// member.snapshot.enabled일 때만 있다.
+	private final ObjectProvider<MemberLookupCache> lookupCache;
+	private final DataVersion dataVersion;
+
+	private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+	private final String origin = UUID.randomUUID().toString();
+	private final ConcurrentLinkedQueue<String> outbox = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+	private final ExecutorService publisher = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "cache-invalidation-publisher");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	@Override
+	public void afterPropertiesSet() {
+		transport.start(this::receive);
+	}
+
+	// 종료 전에 큐에 남은 키를 마저 보낸다. (발행 스레드가 끝난 뒤 들어온 키는 여기서 직접 보낸다)
+	@Override
+	public void destroy() {
+		publisher.shutdown();
+		try {
+			if (!publisher.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+				log.warn("cache invalidation publisher did not finish within {}s", SHUTDOWN_TIMEOUT_SECONDS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		flush();
+		transport.close();
+	}
+
+	public void memberChanged(Long memberId) {
+		record(MEMBER + memberId);
+	}
+
+	public void teamChanged(Long teamId) {
+		record(TEAM + teamId);
+	}
+
+	public void memberInserted(String teamName) {
+		record(teamName != null ? TEAM_VERSION + teamName : EPOCH);
+	}
+
+	public void structuralChange() {
+		record(EPOCH);
+	}
+
+	private void record(String key) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			enqueue(Set.of(key));
+			return;
+		}
+		PendingKeys pending = (PendingKeys)TransactionSynchronizationManager.getResource(this);
+		if (pending == null) {
+			pending = new PendingKeys();
+			TransactionSynchronizationManager.bindResource(this, pending);
+			TransactionSynchronizationManager.registerSynchronization(pending);
+		}
+		pending.keys.add(key);
+	}
+
+	private void enqueue(Collection<String> keys) {
+		outbox.addAll(keys);
+		if (flushScheduled.compareAndSet(false, true)) {
+			try {
+				publisher.execute(this::flush);
+			} catch (RejectedExecutionException e) {
+				// 종료 중: destroy의 마지막 flush가 보낸다.
+				flushScheduled.set(false);
+			}
+		}
+	}
+
+	String origin() {
+		return origin;
+	}
+
+	// 플래그를 먼저 내려야 비우는 도중 들어온 키가 다음 flush로 넘어간다.
+	void flush() {
+		flushScheduled.set(false);
+		Set<String> keys = new LinkedHashSet<>();
+		for (String key = outbox.poll(); key != null; key = outbox.poll()) {
+			keys.add(fitted(key));
+		}
+		if (keys.isEmpty()) {
+			return;
+		}
+		try {
+			for (byte[] payload : InvalidationCodec.encode(origin, keys, properties.getMaxPayloadBytes())) {
+				transport.publish(payload);
+			}
+		} catch (RuntimeException e) {
+			log.warn("failed to publish {} cache invalidation keys", keys.size(), e);
+		}
+	}
+
+	// 키 하나 때문에 묶음 전체를 버리지 않도록 들어가지 않는 키는 e로 바꾼다.
+	private String fitted(String key) {
+		if (InvalidationCodec.fits(origin, key, properties.getMaxPayloadBytes())) {
+			return key;
+		}
+		log.warn("cache invalidation key too long, sending {} instead: {}", EPOCH, key);
+		return EPOCH;
+	}
+
+	void receive(byte[] payload) {
+		InvalidationCodec.Batch batch = InvalidationCodec.decode(payload);
+		if (origin.equals(batch.origin())) {
+			return;
+		}
+		for (String key : batch.keys()) {
+			apply(key);
+		}
+	}
+
+	private void apply(String key) {
+		if (key.startsWith(MEMBER)) {
+			Long memberId = Long.valueOf(key.substring(MEMBER.length()));
+			lookupCache.ifAvailable(cache -> cache.evictMember(memberId));
+		} else if (key.startsWith(TEAM)) {
+			Long teamId = Long.valueOf(key.substring(TEAM.length()));
+			lookupCache.ifAvailable(cache -> cache.evictTeam(teamId));
+		} else if (key.startsWith(TEAM_VERSION)) {
+			dataVersion.memberInserted(key.substring(TEAM_VERSION.length()));
+		} else if (key.equals(EPOCH)) {
+			dataVersion.structuralChange();
+		} else {
+			log.warn("unknown cache invalidation key {}", key);
+		}
+	}
+
+	// 한 트랜잭션 안의 키를 모아 커밋 시 한 번에 발행 큐에 넣는다. (롤백되면 버린다)
+	private class PendingKeys implements TransactionSynchronization {
+		private final Set<String> keys = new LinkedHashSet<>();
+
+		@Override
+		public void afterCommit() {
+			enqueue(keys);
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(ClusterInvalidation.this);
+		}
+	}
+}
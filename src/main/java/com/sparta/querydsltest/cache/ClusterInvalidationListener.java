@@ -0,0 +1,57 @@
+package com.sparta.querydsltest.cache;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.sparta.querydsltest.entity.Member;
+import com.sparta.querydsltest.entity.Team;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+// 다른 노드에 알릴 무효화 키를 남긴다. cache.invalidation.enabled가 꺼져 있으면 아무것도 하지 않는다.
+// DataVersionListener와 같은 기준으로 팀 버전/epoch 키를 고른다.
+@Component
+@RequiredArgsConstructor
+public class ClusterInvalidationListener {
+
+	private final ObjectProvider<ClusterInvalidation> clusterInvalidation;
+
+	@PostPersist
+	public void postPersist(Object entity) {
+		ClusterInvalidation invalidation = clusterInvalidation.getIfAvailable();
+		if (invalidation == null) {
+			return;
+		}
+		if (entity instanceof Member member) {
+			Team team = member.getTeam();
+			if (team == null) {
+				invalidation.memberInserted(null);
+			} else if (Hibernate.isInitialized(team)) {
+				invalidation.memberInserted(team.getName());
+			} else {
+				invalidation.structuralChange();
+			}
+			return;
+		}
+		invalidation.structuralChange();
+	}
+
+	@PostUpdate
+	@PostRemove
+	public void postChange(Object entity) {
+		ClusterInvalidation invalidation = clusterInvalidation.getIfAvailable();
+		if (invalidation == null) {
+			return;
+		}
+		if (entity instanceof Member member) {
+			invalidation.memberChanged(member.getId());
+		} else if (entity instanceof Team team) {
+			invalidation.teamChanged(team.getId());
+		}
+		invalidation.structuralChange();
+	}
+}
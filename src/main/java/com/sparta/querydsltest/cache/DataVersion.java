@@ -0,0 +1,112 @@
+package com.sparta.querydsltest.cache;
+
+import static java.nio.charset.StandardCharsets.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import com.sparta.querydsltest.dto.MemberSearchCondition;
+
+/**
+ * Member/Team 쓰기마다 증가하는 데이터 버전.
+ * 검색 결과의 ETag를 DB 조회 없이 만들기 위해 사용한다.
+ *
+ * - global: 모든 쓰기에서 증가 (팀 조건이 없는 검색용)
+ * - epoch: 행이 팀 사이를 옮겨갈 수 있는 변경(회원 수정/삭제, 팀 변경)에서 증가
+ * - teams: 팀별 회원 추가에서 증가 (팀 조건이 있는 검색은 epoch + 해당 팀 버전만 본다)
+ *
+ * 버전은 커밋 이후에 올린다. 커밋 전에 올리면 새 버전으로 이전 데이터를 캐시할 수 있다.
+ * 같은 검색이라도 JSON/CBOR/member rows 응답은 바이트가 다르므로 표현(Accept)별로 ETag가 다르다.
+ */
+@Component
+public class DataVersion {
+
+	// 재시작 후 카운터가 0부터 다시 시작해도 이전 ETag와 겹치지 않도록 한다.
+	private final String instanceId = UUID.randomUUID().toString();
+
+	private final AtomicLong global = new AtomicLong();
+	private final AtomicLong epoch = new AtomicLong();
+	private final ConcurrentHashMap<String, AtomicLong> teams = new ConcurrentHashMap<>();
+
+	public void memberInserted(String teamName) {
+		record(teamName, false);
+	}
+
+	public void structuralChange() {
+		record(null, true);
+	}
+
+	public long current() {
+		return global.get();
+	}
+
+	public String etag(MemberSearchCondition condition, Pageable pageable, String representation) {
+		MemberSearchCondition normalized = condition.normalized();
+		String version = normalized.getTeamName() != null
+			? epoch.get() + ":" + teamVersion(normalized.getTeamName())
+			: String.valueOf(global.get());
+		String key = instanceId + "|" + version + "|" + normalized + "|" + pageable + "|" + representation;
+		return "\"" + DigestUtils.md5DigestAsHex(key.getBytes(UTF_8)) + "\"";
+	}
+
+	private long teamVersion(String teamName) {
+		AtomicLong version = teams.get(teamName);
+		return version != null ? version.get() : 0L;
+	}
+
+	private void record(String teamName, boolean structural) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			apply(teamName != null ? Set.of(teamName) : Set.of(), structural);
+			return;
+		}
+		PendingChanges pending = (PendingChanges)TransactionSynchronizationManager.getResource(this);
+		if (pending == null) {
+			pending = new PendingChanges();
+			TransactionSynchronizationManager.bindResource(this, pending);
+			TransactionSynchronizationManager.registerSynchronization(pending);
+		}
+		pending.add(teamName, structural);
+	}
+
+	private void apply(Set<String> teamNames, boolean structural) {
+		for (String teamName : teamNames) {
+			teams.computeIfAbsent(teamName, key -> new AtomicLong()).incrementAndGet();
+		}
+		if (structural) {
+			epoch.incrementAndGet();
+		}
+		global.incrementAndGet();
+	}
+
+	// 한 트랜잭션 안의 변경을 모아 커밋 시 한 번만 반영한다.
+	private class PendingChanges implements TransactionSynchronization {
+		private final Set<String> teamNames = new HashSet<>();
+		private boolean structural;
+
+		void add(String teamName, boolean structural) {
+			if (teamName != null) {
+				teamNames.add(teamName);
+			}
+			this.structural |= structural;
+		}
+
+		@Override
+		public void afterCommit() {
+			apply(teamNames, structural);
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(DataVersion.this);
+		}
+	}
+}
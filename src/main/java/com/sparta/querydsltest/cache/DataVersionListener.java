@@ -0,0 +1,43 @@
+package com.sparta.querydsltest.cache;
+
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Component;
+
+import com.sparta.querydsltest.entity.Member;
+import com.sparta.querydsltest.entity.Team;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+// Hibernate가 SpringBeanContainer를 통해 생성하므로 빈을 주입받을 수 있다.
+@Component
+@RequiredArgsConstructor
+public class DataVersionListener {
+
+	private final DataVersion dataVersion;
+
+	@PostPersist
+	public void postPersist(Object entity) {
+		if (entity instanceof Member member) {
+			Team team = member.getTeam();
+			if (team == null) {
+				dataVersion.memberInserted(null);
+			} else if (Hibernate.isInitialized(team)) {
+				dataVersion.memberInserted(team.getName());
+			} else {
+				// 프록시를 초기화하면서까지 팀명을 알아낼 필요는 없다.
+				dataVersion.structuralChange();
+			}
+			return;
+		}
+		dataVersion.structuralChange();
+	}
+
+	@PostUpdate
+	@PostRemove
+	public void postChange(Object entity) {
+		dataVersion.structuralChange();
+	}
+}
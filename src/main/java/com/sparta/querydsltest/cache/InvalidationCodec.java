@@ -0,0 +1,82 @@
+package com.sparta.querydsltest.cache;
+
+import static java.nio.charset.StandardCharsets.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 무효화 알림 바이너리 형식.
+ *
+ * [origin:utf8 (길이 short)][keyCount:short] keys { [length:short][key:utf8] }
+ * 키가 많으면 maxBytes를 넘지 않도록 여러 알림으로 나눈다. 키 하나가 알림 하나에 들어가지 않으면 예외를 던지므로
+ * 보내기 전에 fits로 확인한다.
+ */
+final class InvalidationCodec {
+
+	record Batch(String origin, List<String> keys) {
+	}
+
+	private InvalidationCodec() {
+	}
+
+	// 이 키 하나만 담은 알림이 maxBytes 안에 들어가는지
+	static boolean fits(String origin, String key, int maxBytes) {
+		int keyLength = key.getBytes(UTF_8).length;
+		return keyLength <= Short.MAX_VALUE && 2 + origin.getBytes(UTF_8).length + 2 + 2 + keyLength <= maxBytes;
+	}
+
+	static List<byte[]> encode(String origin, Collection<String> keys, int maxBytes) {
+		byte[] originBytes = origin.getBytes(UTF_8);
+		int headerSize = 2 + originBytes.length + 2;
+		List<byte[]> payloads = new ArrayList<>();
+		List<byte[]> current = new ArrayList<>();
+		int size = headerSize;
+		for (String key : keys) {
+			byte[] bytes = key.getBytes(UTF_8);
+			if (bytes.length > Short.MAX_VALUE || headerSize + 2 + bytes.length > maxBytes) {
+				throw new IllegalArgumentException("invalidation key too long: " + key);
+			}
+			if (size + 2 + bytes.length > maxBytes || current.size() == Short.MAX_VALUE) {
+				payloads.add(write(originBytes, current, size));
+				current.clear();
+				size = headerSize;
+			}
+			current.add(bytes);
+			size += 2 + bytes.length;
+		}
+		if (!current.isEmpty()) {
+			payloads.add(write(originBytes, current, size));
+		}
+		return payloads;
+	}
+
+	static Batch decode(byte[] payload) {
+		ByteBuffer buffer = ByteBuffer.wrap(payload);
+		String origin = getString(buffer);
+		int count = buffer.getShort();
+		List<String> keys = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			keys.add(getString(buffer));
+		}
+		return new Batch(origin, keys);
+	}
+
+	private static byte[] write(byte[] origin, List<byte[]> keys, int size) {
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+		buffer.putShort((short)origin.length).put(origin);
+		buffer.putShort((short)keys.size());
+		for (byte[] key : keys) {
+			buffer.putShort((short)key.length).put(key);
+		}
+		return buffer.array();
+	}
+
+	private static String getString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getShort()];
+		buffer.get(bytes);
+		return new String(bytes, UTF_8);
+	}
+}
@@ -0,0 +1,41 @@
+package com.sparta.querydsltest.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache.invalidation")
+public class InvalidationProperties {
+
+	public enum Transport {
+		// 공유 DB의 cache_invalidation 테이블을 주기적으로 읽는다.
+		JDBC,
+		// 설정한 peer 목록에 UDP 패킷으로 보낸다.
+		UDP
+	}
+
+	// 켜면 이 노드의 회원/팀 변경을 커밋 후 다른 노드에 알리고, 받은 알림으로 로컬 캐시를 무효화한다.
+	private boolean enabled = false;
+	private Transport transport = Transport.JDBC;
+	// 한 번에 보내는 알림의 최대 크기. 넘으면 여러 개로 나눈다. (UDP 단편화가 생기지 않는 크기)
+	private int maxPayloadBytes = 1_400;
+	private Duration pollInterval = Duration.ofMillis(500);
+	// JDBC: 이보다 오래된 알림 행은 지운다.
+	private Duration retention = Duration.ofMinutes(5);
+	private Udp udp = new Udp();
+
+	@Getter
+	@Setter
+	public static class Udp {
+		private int port = 45678;
+		// host:port 목록. 자기 자신이 있어도 된다. (자기가 보낸 알림은 무시한다)
+		private List<String> peers = new ArrayList<>();
+	}
+}
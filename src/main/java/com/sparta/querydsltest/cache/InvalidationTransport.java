@@ -0,0 +1,15 @@
+package com.sparta.querydsltest.cache;
+
+import java.util.function.Consumer;
+
+// 노드 간 무효화 알림 전송 방식. 알림 내용(payload)은 InvalidationCodec이 만든다.
+public interface InvalidationTransport extends AutoCloseable {
+
+	void publish(byte[] payload);
+
+	// 다른 노드(자기 자신 포함 가능)가 보낸 알림을 receiver로 넘기기 시작한다.
+	void start(Consumer<byte[]> receiver);
+
+	@Override
+	void close();
+}
@@ -0,0 +1,38 @@
+package com.sparta.querydsltest.cache;
+
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "cache.invalidation", name = "enabled", havingValue = "true")
+class InvalidationTransportConfig {
+
+	@Bean
+	InvalidationTransport invalidationTransport(InvalidationProperties properties, JdbcTemplate jdbcTemplate)
+		throws SocketException {
+		return switch (properties.getTransport()) {
+			case JDBC -> new JdbcInvalidationTransport(jdbcTemplate, properties.getPollInterval(),
+				properties.getRetention());
+			case UDP -> new UdpInvalidationTransport(properties.getUdp().getPort(),
+				peers(properties.getUdp().getPeers()));
+		};
+	}
+
+	private static List<InetSocketAddress> peers(List<String> peers) {
+		return peers.stream()
+			.map(peer -> {
+				int colon = peer.lastIndexOf(':');
+				if (colon < 0) {
+					throw new IllegalArgumentException("cache.invalidation.udp.peers must be host:port: " + peer);
+				}
+				return new InetSocketAddress(peer.substring(0, colon), Integer.parseInt(peer.substring(colon + 1)));
+			})
+			.toList();
+	}
+}
@@ -0,0 +1,87 @@
+package com.sparta.querydsltest.cache;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 모든 노드가 같이 쓰는 DB의 cache_invalidation 테이블로 알림을 주고받는다.
+ *
+ * 각 노드는 마지막으로 읽은 id 이후의 행을 pollInterval마다 읽는다.
+ * 알림은 자동 커밋 insert 한 건이라 id 순서와 커밋 순서가 어긋나는 구간이 아주 짧지만,
+ * 그 사이 놓친 변경은 MemberLookupCache의 주기적 조회(refresh)가 따라잡는다.
+ */
+@Slf4j
+class JdbcInvalidationTransport implements InvalidationTransport {
+
+	private static final String CREATE_TABLE = """
+		create table if not exists cache_invalidation (
+			id bigint generated by default as identity primary key,
+			payload varbinary(65535) not null,
+			created_at timestamp default current_timestamp not null
+		)""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final Duration pollInterval;
+	private final Duration retention;
+	private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "cache-invalidation-poller");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private long lastId;
+	private Instant nextCleanup = Instant.now();
+
+	JdbcInvalidationTransport(JdbcTemplate jdbcTemplate, Duration pollInterval, Duration retention) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.pollInterval = pollInterval;
+		this.retention = retention;
+	}
+
+	@Override
+	public void publish(byte[] payload) {
+		jdbcTemplate.update("insert into cache_invalidation (payload) values (?)", (Object)payload);
+	}
+
+	// 시작 전에 쌓인 알림은 이미 DB에 반영된 상태를 읽어 올 것이므로 건너뛴다.
+	@Override
+	public void start(Consumer<byte[]> receiver) {
+		jdbcTemplate.execute(CREATE_TABLE);
+		Long maxId = jdbcTemplate.queryForObject("select max(id) from cache_invalidation", Long.class);
+		lastId = maxId != null ? maxId : 0L;
+		poller.scheduleWithFixedDelay(() -> poll(receiver), pollInterval.toMillis(), pollInterval.toMillis(),
+			TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void close() {
+		poller.shutdownNow();
+	}
+
+	private void poll(Consumer<byte[]> receiver) {
+		try {
+			jdbcTemplate.query("select id, payload from cache_invalidation where id > ? order by id", rs -> {
+				lastId = rs.getLong(1);
+				receiver.accept(rs.getBytes(2));
+			}, lastId);
+			Instant now = Instant.now();
+			if (now.isAfter(nextCleanup)) {
+				jdbcTemplate.update("delete from cache_invalidation where created_at < ?",
+					Timestamp.from(now.minus(retention)));
+				nextCleanup = now.plus(retention);
+			}
+		} catch (RuntimeException e) {
+			// 예외가 나가면 스케줄이 멈춘다.
+			log.warn("failed to poll cache invalidations", e);
+		}
+	}
+}
@@ -0,0 +1,195 @@
+package com.sparta.querydsltest.cache;
+
+import static com.sparta.querydsltest.entity.QMember.*;
+import static com.sparta.querydsltest.entity.QTeam.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.sparta.querydsltest.dto.MemberTeamDto;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 회원/팀 id 조회용 인메모리 캐시. (member.snapshot.enabled일 때만 만든다)
+ *
+ * 시작 시 스냅샷 파일이 있으면 그것을 읽고 스냅샷 시점 이후 변경분만 DB에서 가져온다. (없으면 전체 조회)
+ * 이 노드의 변경은 MemberLookupCacheListener가 커밋 후 바로 반영하고,
+ * 다른 노드의 변경은 modified_at 기준 주기적 조회(refresh)로 따라잡는다.
+ * 삭제와 JPQL 벌크 수정은 modified_at으로 알 수 없으므로 reconcile-interval마다 전체를 다시 읽어
+ * DB에 없는 항목을 지우고 값을 맞춘다. (cache.invalidation이 켜져 있으면 다른 노드의 삭제는 바로 반영된다)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "member.snapshot", name = "enabled", havingValue = "true")
+public class MemberLookupCache {
+
+	public record MemberRow(Long id, String username, int age, Long teamId) {
+	}
+
+	private final JPAQueryFactory queryFactory;
+	private final MemberSnapshotProperties properties;
+
+	private final ConcurrentHashMap<Long, MemberRow> members = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Long, String> teams = new ConcurrentHashMap<>();
+	private volatile Instant watermark;
+
+	public Optional<MemberTeamDto> find(Long memberId) {
+		MemberRow row = members.get(memberId);
+		if (row == null) {
+			return Optional.empty();
+		}
+		String teamName = row.teamId() != null ? teams.get(row.teamId()) : null;
+		return Optional.of(new MemberTeamDto(row.id(), row.username(), row.age(), row.teamId(), teamName));
+	}
+
+	public boolean isWarm() {
+		return watermark != null;
+	}
+
+	public int size() {
+		return members.size();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		long start = System.nanoTime();
+		Path path = Path.of(properties.getPath());
+		if (Files.exists(path)) {
+			try {
+				MemberSnapshotFile.Snapshot snapshot = MemberSnapshotFile.read(path);
+				snapshot.teams().forEach(this::putTeam);
+				snapshot.members().forEach(row -> members.put(row.id(), row));
+				watermark = Instant.ofEpochMilli(snapshot.watermarkMillis());
+				log.info("loaded member snapshot: {} members in {} ms", members.size(),
+					(System.nanoTime() - start) / 1_000_000);
+				refresh();
+				return;
+			} catch (IOException | RuntimeException e) {
+				log.warn("failed to load member snapshot {}, falling back to full load", path, e);
+				members.clear();
+				teams.clear();
+			}
+		}
+		loadSince(null);
+		log.info("loaded member lookup cache from database: {} members in {} ms", members.size(),
+			(System.nanoTime() - start) / 1_000_000);
+	}
+
+	// 이전 조회 시각보다 catchUpOverlap 만큼 앞에서부터 다시 읽는다. (늦게 커밋된 트랜잭션, 노드 간 시각 차이)
+	@Scheduled(fixedDelayString = "${member.snapshot.refresh-interval:PT10S}",
+		initialDelayString = "${member.snapshot.refresh-interval:PT10S}")
+	public void refresh() {
+		Instant current = watermark;
+		if (current == null) {
+			return;
+		}
+		loadSince(current.minus(properties.getCatchUpOverlap()));
+	}
+
+	// 전체를 다시 읽은 뒤, 읽는 동안 커밋된 변경을 놓치지 않도록 한 번 더 따라잡는다.
+	@Scheduled(fixedDelayString = "${member.snapshot.reconcile-interval:PT5M}",
+		initialDelayString = "${member.snapshot.reconcile-interval:PT5M}")
+	public void reconcile() {
+		if (!isWarm()) {
+			return;
+		}
+		loadSince(null);
+		refresh();
+	}
+
+	@Scheduled(fixedDelayString = "${member.snapshot.interval:PT5M}",
+		initialDelayString = "${member.snapshot.interval:PT5M}")
+	public void writeSnapshot() {
+		if (!isWarm()) {
+			return;
+		}
+		// 워터마크를 먼저 읽어야 복사 중 들어온 변경이 다음 시작 때 다시 조회된다.
+		Instant snapshotWatermark = watermark;
+		MemberSnapshotFile.Snapshot snapshot = new MemberSnapshotFile.Snapshot(
+			snapshotWatermark.toEpochMilli(), new HashMap<>(teams), new ArrayList<>(members.values()));
+		try {
+			MemberSnapshotFile.write(Path.of(properties.getPath()), snapshot);
+		} catch (IOException e) {
+			log.warn("failed to write member snapshot {}", properties.getPath(), e);
+		}
+	}
+
+	Instant watermark() {
+		return watermark;
+	}
+
+	void putMember(MemberRow row) {
+		members.put(row.id(), row);
+	}
+
+	void putTeam(Long teamId, String name) {
+		// ConcurrentHashMap은 null 값을 허용하지 않는다.
+		if (name == null) {
+			teams.remove(teamId);
+			return;
+		}
+		teams.put(teamId, name);
+	}
+
+	void evictMember(Long memberId) {
+		members.remove(memberId);
+	}
+
+	void evictTeam(Long teamId) {
+		teams.remove(teamId);
+	}
+
+	// since가 null이면 전체를 읽고, 읽은 결과에 없는 항목(삭제된 행)은 캐시에서도 지운다.
+	private void loadSince(Instant since) {
+		Instant started = Instant.now();
+
+		List<Tuple> teamRows = queryFactory
+			.select(team.id, team.name)
+			.from(team)
+			.where(since != null ? team.modifiedAt.goe(since) : null)
+			.fetch();
+		for (Tuple row : teamRows) {
+			putTeam(row.get(team.id), row.get(team.name));
+		}
+		if (since == null) {
+			teams.keySet().retainAll(teamRows.stream().map(row -> row.get(team.id)).collect(Collectors.toSet()));
+		}
+
+		List<Tuple> memberRows = queryFactory
+			.select(member.id, member.username, member.age, member.team.id)
+			.from(member)
+			.where(since != null ? member.modifiedAt.goe(since) : null)
+			.fetch();
+		Map<Long, MemberRow> loaded = new HashMap<>(memberRows.size() * 2);
+		for (Tuple row : memberRows) {
+			Long id = row.get(member.id);
+			Integer age = row.get(member.age);
+			loaded.put(id, new MemberRow(id, row.get(member.username), age != null ? age : 0, row.get(member.team.id)));
+		}
+		if (since == null) {
+			members.keySet().retainAll(loaded.keySet());
+		}
+		members.putAll(loaded);
+		watermark = started;
+	}
+}
@@ -0,0 +1,73 @@
+package com.sparta.querydsltest.cache;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sparta.querydsltest.entity.Member;
+import com.sparta.querydsltest.entity.Team;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+// 이 노드에서 일어난 변경을 커밋 후 MemberLookupCache에 바로 반영한다. (롤백되면 반영하지 않는다)
+// 리스너는 EntityManagerFactory 생성 중에 만들어지므로 JPA에 의존하는 캐시는 나중에 꺼내 쓴다.
+// 빈이 없어도 Hibernate가 @EntityListeners로 직접 만들기 때문에 캐시가 꺼져 있으면 아무것도 하지 않는다.
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "member.snapshot", name = "enabled", havingValue = "true")
+public class MemberLookupCacheListener {
+
+	private final ObjectProvider<MemberLookupCache> lookupCache;
+
+	@PostPersist
+	@PostUpdate
+	public void postWrite(Object entity) {
+		MemberLookupCache cache = lookupCache.getIfAvailable();
+		if (cache == null) {
+			return;
+		}
+		if (entity instanceof Member member) {
+			// getTeam().getId()는 프록시를 초기화하지 않는다.
+			MemberLookupCache.MemberRow row = new MemberLookupCache.MemberRow(member.getId(), member.getUsername(),
+				member.getAge(), member.getTeam() != null ? member.getTeam().getId() : null);
+			afterCommit(() -> cache.putMember(row));
+		} else if (entity instanceof Team team) {
+			Long teamId = team.getId();
+			String name = team.getName();
+			afterCommit(() -> cache.putTeam(teamId, name));
+		}
+	}
+
+	@PostRemove
+	public void postRemove(Object entity) {
+		MemberLookupCache cache = lookupCache.getIfAvailable();
+		if (cache == null) {
+			return;
+		}
+		if (entity instanceof Member member) {
+			Long memberId = member.getId();
+			afterCommit(() -> cache.evictMember(memberId));
+		} else if (entity instanceof Team team) {
+			Long teamId = team.getId();
+			afterCommit(() -> cache.evictTeam(teamId));
+		}
+	}
+
+	private void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
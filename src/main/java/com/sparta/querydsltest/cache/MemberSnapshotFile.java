@@ -0,0 +1,132 @@
+package com.sparta.querydsltest.cache;
+
+import static java.nio.charset.StandardCharsets.*;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MemberLookupCache 상태를 담는 메모리 매핑 바이너리 파일.
+ *
+ * [magic:int][formatVersion:int][watermarkMillis:long][teamCount:int][memberCount:int]
+ * teams   { [id:long][nameLength:int][name:utf8] }
+ * members { [id:long][age:int][teamId:long (0 = 없음)][usernameLength:int][username:utf8] }
+ * 문자열 길이 -1은 null이다.
+ *
+ * 임시 파일에 쓴 뒤 이동(rename)하므로 읽는 쪽은 항상 완성된 파일만 본다.
+ */
+final class MemberSnapshotFile {
+
+	static final int MAGIC = 0x4D534E50; // "MSNP"
+	static final int FORMAT_VERSION = 1;
+	private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4;
+
+	record Snapshot(long watermarkMillis, Map<Long, String> teams, List<MemberLookupCache.MemberRow> members) {
+	}
+
+	private MemberSnapshotFile() {
+	}
+
+	static void write(Path path, Snapshot snapshot) throws IOException {
+		List<byte[]> teamNames = new ArrayList<>(snapshot.teams().size());
+		long size = HEADER_SIZE;
+		for (String name : snapshot.teams().values()) {
+			byte[] bytes = name != null ? name.getBytes(UTF_8) : null;
+			teamNames.add(bytes);
+			size += 8 + 4 + (bytes != null ? bytes.length : 0);
+		}
+		List<byte[]> usernames = new ArrayList<>(snapshot.members().size());
+		for (MemberLookupCache.MemberRow member : snapshot.members()) {
+			byte[] bytes = member.username() != null ? member.username().getBytes(UTF_8) : null;
+			usernames.add(bytes);
+			size += 8 + 4 + 8 + 4 + (bytes != null ? bytes.length : 0);
+		}
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("snapshot too large to map: " + size + " bytes");
+		}
+
+		Path parent = path.toAbsolutePath().getParent();
+		Files.createDirectories(parent);
+		Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+		try (FileChannel channel = FileChannel.open(temp,
+			StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			buffer.putInt(MAGIC)
+				.putInt(FORMAT_VERSION)
+				.putLong(snapshot.watermarkMillis())
+				.putInt(snapshot.teams().size())
+				.putInt(snapshot.members().size());
+			int index = 0;
+			for (Long teamId : snapshot.teams().keySet()) {
+				buffer.putLong(teamId);
+				putBytes(buffer, teamNames.get(index++));
+			}
+			index = 0;
+			for (MemberLookupCache.MemberRow member : snapshot.members()) {
+				buffer.putLong(member.id())
+					.putInt(member.age())
+					.putLong(member.teamId() != null ? member.teamId() : 0L);
+				putBytes(buffer, usernames.get(index++));
+			}
+			buffer.force();
+		}
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	static Snapshot read(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != MAGIC) {
+				throw new IOException("not a member snapshot: " + path);
+			}
+			int formatVersion = buffer.getInt();
+			if (formatVersion != FORMAT_VERSION) {
+				throw new IOException("unsupported snapshot format version " + formatVersion + ": " + path);
+			}
+			long watermarkMillis = buffer.getLong();
+			int teamCount = buffer.getInt();
+			int memberCount = buffer.getInt();
+
+			Map<Long, String> teams = new HashMap<>(teamCount * 2);
+			for (int i = 0; i < teamCount; i++) {
+				long id = buffer.getLong();
+				teams.put(id, getString(buffer));
+			}
+			List<MemberLookupCache.MemberRow> members = new ArrayList<>(memberCount);
+			for (int i = 0; i < memberCount; i++) {
+				long id = buffer.getLong();
+				int age = buffer.getInt();
+				long teamId = buffer.getLong();
+				members.add(new MemberLookupCache.MemberRow(id, getString(buffer), age, teamId != 0 ? teamId : null));
+			}
+			return new Snapshot(watermarkMillis, teams, members);
+		}
+	}
+
+	private static void putBytes(MappedByteBuffer buffer, byte[] bytes) {
+		if (bytes == null) {
+			buffer.putInt(-1);
+			return;
+		}
+		buffer.putInt(bytes.length).put(bytes);
+	}
+
+	private static String getString(MappedByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, UTF_8);
+	}
+}
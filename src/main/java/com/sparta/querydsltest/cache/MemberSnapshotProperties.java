@@ -0,0 +1,23 @@
+package com.sparta.querydsltest.cache;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "member.snapshot")
+public class MemberSnapshotProperties {
+
+	// MemberLookupCache와 스냅샷 파일 저장/로드를 켠다.
+	private boolean enabled = false;
+	private String path = "snapshot/members.snap";
+	private Duration interval = Duration.ofMinutes(5);
+	private Duration refreshInterval = Duration.ofSeconds(10);
+	private Duration catchUpOverlap = Duration.ofSeconds(30);
+	// 삭제/벌크 수정을 반영하기 위해 전체를 다시 읽는 주기
+	private Duration reconcileInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,69 @@
+package com.sparta.querydsltest.cache;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+// peer 목록에 UDP 패킷으로 알림을 보낸다. 유실될 수 있으므로 MemberLookupCache의 주기적 조회가 뒤를 받친다.
+@Slf4j
+class UdpInvalidationTransport implements InvalidationTransport {
+
+	private static final int MAX_DATAGRAM = 65_507;
+
+	private final DatagramSocket socket;
+	private final List<InetSocketAddress> peers;
+
+	UdpInvalidationTransport(int port, List<InetSocketAddress> peers) throws SocketException {
+		this.socket = new DatagramSocket(port);
+		this.peers = peers;
+	}
+
+	int localPort() {
+		return socket.getLocalPort();
+	}
+
+	@Override
+	public void publish(byte[] payload) {
+		for (InetSocketAddress peer : peers) {
+			try {
+				socket.send(new DatagramPacket(payload, payload.length, peer));
+			} catch (IOException e) {
+				log.warn("failed to send cache invalidation to {}", peer, e);
+			}
+		}
+	}
+
+	@Override
+	public void start(Consumer<byte[]> receiver) {
+		Thread thread = new Thread(() -> {
+			byte[] buffer = new byte[MAX_DATAGRAM];
+			while (!socket.isClosed()) {
+				DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+				try {
+					socket.receive(packet);
+					receiver.accept(Arrays.copyOf(packet.getData(), packet.getLength()));
+				} catch (IOException e) {
+					if (!socket.isClosed()) {
+						log.warn("failed to receive cache invalidation", e);
+					}
+				} catch (RuntimeException e) {
+					log.warn("failed to apply cache invalidation", e);
+				}
+			}
+		}, "cache-invalidation-udp");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public void close() {
+		socket.close();
+	}
+}
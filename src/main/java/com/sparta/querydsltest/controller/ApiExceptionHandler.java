@@ -0,0 +1,77 @@
+package com.sparta.querydsltest.controller;
+
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.sparta.querydsltest.search.SearchCancelledException;
+import com.sparta.querydsltest.search.SearchRejectedException;
+import com.sparta.querydsltest.sqlbudget.SqlBudgetExceededException;
+import com.sparta.querydsltest.web.RequestLimitExceededException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class ApiExceptionHandler {
+
+	private final MeterRegistry meterRegistry;
+
+	// 과부하로 거절된 검색은 기다리게 하지 않고 바로 503과 재시도 시점을 알려준다.
+	@ExceptionHandler(SearchRejectedException.class)
+	public ResponseEntity<ProblemDetail> searchRejected(SearchRejectedException e) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+			.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+			.body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage()));
+	}
+
+	// search.query.timeout(s)를 넘긴 쿼리. 재시도해도 같은 결과일 가능성이 높으므로 Retry-After는 주지 않는다.
+	@ExceptionHandler(QueryTimeoutException.class)
+	public ResponseEntity<ProblemDetail> queryTimeout(QueryTimeoutException e, HttpServletRequest request) {
+		meterRegistry.counter("member.search.query.timeouts", "uri", uriPattern(request)).increment();
+		ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.GATEWAY_TIMEOUT,
+			"query exceeded its time limit; narrow the search condition");
+		problem.setTitle("Query Timeout");
+		return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(problem);
+	}
+
+	// 한 요청에 너무 많은 조건/id를 보낸 경우. 나눠서 다시 보내면 된다.
+	@ExceptionHandler(RequestLimitExceededException.class)
+	public ResponseEntity<ProblemDetail> requestLimitExceeded(RequestLimitExceededException e) {
+		ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+		problem.setTitle("Request Too Large");
+		problem.setProperty("limit", e.getLimit());
+		return ResponseEntity.badRequest().body(problem);
+	}
+
+	// 클라이언트가 이미 떠났으므로 응답은 쓰지 않는다.
+	@ExceptionHandler(SearchCancelledException.class)
+	public void searchCancelled(SearchCancelledException e) {
+		meterRegistry.counter("member.search.cancelled", "endpoint", e.getEndpoint()).increment();
+		log.debug("search cancelled: {}", e.getMessage());
+	}
+
+	// sql.budget.mode=reject에서 예산을 넘긴 요청. 클라이언트가 아니라 서버 코드(지연 로딩 등)의 문제다.
+	@ExceptionHandler(SqlBudgetExceededException.class)
+	public ResponseEntity<ProblemDetail> sqlBudgetExceeded(SqlBudgetExceededException e) {
+		log.error("request rejected: {}", e.getMessage());
+		ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR,
+			"request exceeded its SQL statement budget");
+		problem.setTitle("SQL Budget Exceeded");
+		return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(problem);
+	}
+
+	private String uriPattern(HttpServletRequest request) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		return pattern != null ? pattern.toString() : "UNKNOWN";
+	}
+}
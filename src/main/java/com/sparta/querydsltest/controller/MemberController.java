@@ -1,16 +1,52 @@
 package com.sparta.querydsltest.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.querydsl.core.Tuple;
+import com.sparta.querydsltest.cache.DataVersion;
+import com.sparta.querydsltest.dto.ApproximateCount;
+import com.sparta.querydsltest.dto.MemberAgeRankDto;
 import com.sparta.querydsltest.dto.MemberSearchCondition;
+import com.sparta.querydsltest.dto.MemberSliceResponse;
 import com.sparta.querydsltest.dto.MemberTeamDto;
-import com.sparta.querydsltest.repository.MemberJpaRepository;
+import com.sparta.querydsltest.repository.MemberAnalyticsRepository;
+import com.sparta.querydsltest.repository.MemberBulkLookup;
 import com.sparta.querydsltest.repository.MemberRepository;
+import com.sparta.querydsltest.search.AdaptiveConcurrencyLimiter;
+import com.sparta.querydsltest.search.CoalescingMemberSearch;
+import com.sparta.querydsltest.search.SearchCancelledException;
+import com.sparta.querydsltest.shard.ShardedMemberSearch;
+import com.sparta.querydsltest.web.DirectJsonProperties;
+import com.sparta.querydsltest.web.MemberTeamJsonWriter;
+import com.sparta.querydsltest.web.RequestLimitExceededException;
+import com.sparta.querydsltest.web.RequestLimitProperties;
+import com.sparta.querydsltest.web.ResultLimitProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
 
 import lombok.RequiredArgsConstructor;
 
@@ -18,21 +54,255 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class MemberController {
 
-	private final MemberJpaRepository memberJpaRepository;
+	static final String TRUNCATED_HEADER = "X-Result-Truncated";
+	static final String LIMIT_HEADER = "X-Result-Limit";
+	// batch에서 잘린 조건의 순번 (0부터, 쉼표로 구분)
+	static final String TRUNCATED_CONDITIONS_HEADER = "X-Result-Truncated-Conditions";
+
 	private final MemberRepository memberRepository;
+	private final MemberAnalyticsRepository memberAnalyticsRepository;
+	private final CoalescingMemberSearch coalescingMemberSearch;
+	private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+	private final DataVersion dataVersion;
+	private final MemberBulkLookup memberBulkLookup;
+	private final DirectJsonProperties directJson;
+	private final MemberTeamJsonWriter memberTeamJsonWriter;
+	private final ResultLimitProperties resultLimit;
+	private final RequestLimitProperties requestLimit;
+	private final MeterRegistry meterRegistry;
+	// shard.enabled일 때만 있다. 있으면 검색, id 조회, 통계는 샤드 전체를 조회한다.
+	private final ObjectProvider<ShardedMemberSearch> shardedMemberSearch;
 
+	// If-None-Match가 현재 ETag와 같으면 쿼리 없이 304를 응답한다.
+	// 결과가 search.result-limit.max-rows를 넘으면 JSON은 전부 스트리밍하고(STREAM), 아니면 잘라서 헤더로 알린다.
 	@GetMapping("/v1/members")
-	public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
-		return memberJpaRepository.search(condition);
+	public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition, WebRequest request,
+		HttpServletResponse response) {
+		if (notModified(condition, Pageable.unpaged(), request, response)) {
+			return null;
+		}
+		ShardedMemberSearch sharded = shardedMemberSearch.getIfAvailable();
+		if (sharded != null) {
+			return concurrencyLimiter.execute("v1",
+				() -> truncated(sharded.search(condition, resultLimit.getMaxRows()), response));
+		}
+		if (writesJsonDirectly(request)) {
+			return concurrencyLimiter.execute("v1", () -> writeJson("v1", response,
+				out -> memberTeamJsonWriter.writeList(memberRepository.streamSearch(condition), out)));
+		}
+		if (resultLimit.getOverflow() == ResultLimitProperties.Overflow.STREAM && prefersJson(request)) {
+			return concurrencyLimiter.execute("v1", () -> searchOrStream(condition, response));
+		}
+		return concurrencyLimiter.execute("v1",
+			() -> truncated(memberRepository.search(condition, resultLimit.getMaxRows()), response));
+	}
+
+	// 여러 id를 한 번에 조회한다. 결과는 요청한 id 순서이며 없는 id는 빠진다.
+	@PostMapping("/v1/members/lookup")
+	public List<MemberTeamDto> findMembers(@RequestBody List<Long> ids) {
+		if (ids.size() > requestLimit.getMaxLookupIds()) {
+			throw new RequestLimitExceededException("ids", ids.size(), requestLimit.getMaxLookupIds());
+		}
+		ShardedMemberSearch sharded = shardedMemberSearch.getIfAvailable();
+		if (sharded != null) {
+			return concurrencyLimiter.execute("batch", () -> sharded.findByIds(ids));
+		}
+		return concurrencyLimiter.execute("batch", () -> memberBulkLookup.findByIds(ids));
 	}
 
 	@GetMapping("/v2/members")
-	public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
-		return memberRepository.searchPageSimple(condition, pageable);
+	public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable,
+		WebRequest request, HttpServletResponse response) {
+		if (notModified(condition, pageable, request, response)) {
+			return null;
+		}
+		ShardedMemberSearch sharded = shardedMemberSearch.getIfAvailable();
+		if (sharded != null) {
+			return concurrencyLimiter.execute("v2", () -> sharded.searchPage(condition, pageable));
+		}
+		if (writesJsonDirectly(request)) {
+			return concurrencyLimiter.execute("v2", () -> writeJson("v2", response,
+				out -> memberTeamJsonWriter.writePage(coalescingMemberSearch.searchPageTuples(condition, pageable), out)));
+		}
+		return concurrencyLimiter.execute("v2",
+			() -> coalescingMemberSearch.searchPageSimple(condition, pageable));
 	}
 
 	@GetMapping("/v3/members")
-	public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
-		return memberRepository.searchPageComplex(condition, pageable);
+	public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable,
+		WebRequest request, HttpServletResponse response) {
+		if (notModified(condition, pageable, request, response)) {
+			return null;
+		}
+		ShardedMemberSearch sharded = shardedMemberSearch.getIfAvailable();
+		if (sharded != null) {
+			return concurrencyLimiter.execute("v3", () -> sharded.searchPage(condition, pageable));
+		}
+		return concurrencyLimiter.execute("v3",
+			() -> coalescingMemberSearch.searchPageComplex(condition, pageable));
+	}
+
+	// 무한 스크롤용: count 쿼리 없이 다음 페이지 유무만 알려준다. approxTotal=true면 대략적인 전체 건수를 붙인다.
+	@GetMapping("/v4/members")
+	public MemberSliceResponse searchMemberV4(MemberSearchCondition condition, Pageable pageable,
+		@RequestParam(defaultValue = "false") boolean approxTotal, WebRequest request, HttpServletResponse response) {
+		if (notModified(condition, pageable, request, response)) {
+			return null;
+		}
+		ShardedMemberSearch sharded = shardedMemberSearch.getIfAvailable();
+		if (sharded != null) {
+			return concurrencyLimiter.execute("v4", () -> MemberSliceResponse.of(sharded.searchSlice(condition, pageable),
+				approxTotal ? sharded.approximateCount(condition) : null));
+		}
+		return concurrencyLimiter.execute("v4", () -> {
+			Slice<MemberTeamDto> slice = coalescingMemberSearch.searchSlice(condition, pageable);
+			ApproximateCount total = approxTotal ? coalescingMemberSearch.approximateCount(condition) : null;
+			return MemberSliceResponse.of(slice, total);
+		});
+	}
+
+	// 여러 조건을 한 번에 받아 조건 순서대로 결과 목록을 돌려준다.
+	// 조건마다 search.result-limit.max-rows건까지만 주고, 넘은 조건은 헤더로 알린다.
+	@PostMapping("/v1/members/batch")
+	public List<List<MemberTeamDto>> searchMemberBatch(@RequestBody List<MemberSearchCondition> conditions,
+		HttpServletResponse response) {
+		if (conditions.size() > requestLimit.getMaxBatchConditions()) {
+			throw new RequestLimitExceededException("conditions", conditions.size(), requestLimit.getMaxBatchConditions());
+		}
+		ShardedMemberSearch sharded = shardedMemberSearch.getIfAvailable();
+		if (sharded != null) {
+			return concurrencyLimiter.execute("batch",
+				() -> truncatedEach(sharded.searchBatch(conditions, resultLimit.getMaxRows()), response));
+		}
+		return concurrencyLimiter.execute("batch",
+			() -> truncatedEach(memberRepository.searchBatch(conditions, resultLimit.getMaxRows()), response));
+	}
+
+	// 전체 팀 순위는 회원 수만큼 커지므로 페이지 단위로만 준다. (page, size; size는 spring.data.web.pageable.max-page-size까지)
+	@GetMapping("/v1/members/analytics/age-rank")
+	public Slice<MemberAgeRankDto> ageRankInTeam(@RequestParam(required = false) String teamName, Pageable pageable) {
+		ShardedMemberSearch sharded = shardedMemberSearch.getIfAvailable();
+		if (sharded != null) {
+			return concurrencyLimiter.execute("analytics", () -> sharded.rankByAgeInTeam(teamName, pageable));
+		}
+		return concurrencyLimiter.execute("analytics",
+			() -> memberAnalyticsRepository.rankByAgeInTeam(teamName, pageable));
+	}
+
+	@GetMapping("/v1/members/analytics/top-by-age")
+	public List<MemberAgeRankDto> topByAgePerTeam(@RequestParam(defaultValue = "3") int limit) {
+		int capped = Math.max(1, Math.min(limit, 100));
+		ShardedMemberSearch sharded = shardedMemberSearch.getIfAvailable();
+		if (sharded != null) {
+			return concurrencyLimiter.execute("analytics", () -> sharded.topByAgePerTeam(capped));
+		}
+		return concurrencyLimiter.execute("analytics", () -> memberAnalyticsRepository.topByAgePerTeam(capped));
+	}
+
+	// 스트림 한 번으로 maxRows + 1건까지 모아 보고, 넘으면 모은 행 뒤에 같은 스트림의 나머지를 이어서 쓴다. (다시 조회하지 않는다)
+	private List<MemberTeamDto> searchOrStream(MemberSearchCondition condition, HttpServletResponse response) {
+		Stream<Tuple> rows = memberRepository.streamSearch(condition);
+		Iterator<Tuple> iterator = rows.iterator();
+		List<Tuple> head = new ArrayList<>();
+		try {
+			while (head.size() <= resultLimit.getMaxRows() && iterator.hasNext()) {
+				head.add(iterator.next());
+			}
+		} catch (RuntimeException e) {
+			rows.close();
+			throw e;
+		}
+		if (head.size() <= resultLimit.getMaxRows()) {
+			rows.close();
+			return head.stream().map(MemberController::toDto).toList();
+		}
+
+		limited("v1", "stream");
+		Stream<Tuple> all = Stream.concat(head.stream(),
+				StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false))
+			.onClose(rows::close);
+		return writeJson("v1", response, out -> memberTeamJsonWriter.writeList(all, out));
+	}
+
+	// maxRows + 1건까지 읽은 결과. 넘으면 maxRows건으로 자르고 헤더로 알린다.
+	private List<MemberTeamDto> truncated(List<MemberTeamDto> rows, HttpServletResponse response) {
+		if (rows.size() <= resultLimit.getMaxRows()) {
+			return rows;
+		}
+		limited("v1", "truncate");
+		response.setHeader(TRUNCATED_HEADER, "true");
+		response.setHeader(LIMIT_HEADER, String.valueOf(resultLimit.getMaxRows()));
+		return rows.subList(0, resultLimit.getMaxRows());
+	}
+
+	// 조건마다 maxRows + 1건까지 읽은 결과. 넘은 조건만 maxRows건으로 자르고 그 순번을 헤더로 알린다.
+	private List<List<MemberTeamDto>> truncatedEach(List<List<MemberTeamDto>> results, HttpServletResponse response) {
+		StringJoiner truncatedIndexes = new StringJoiner(",");
+		List<List<MemberTeamDto>> limitedResults = new ArrayList<>(results.size());
+		for (int i = 0; i < results.size(); i++) {
+			List<MemberTeamDto> rows = results.get(i);
+			if (rows.size() > resultLimit.getMaxRows()) {
+				truncatedIndexes.add(String.valueOf(i));
+				rows = rows.subList(0, resultLimit.getMaxRows());
+			}
+			limitedResults.add(rows);
+		}
+		if (truncatedIndexes.length() > 0) {
+			limited("batch", "truncate");
+			response.setHeader(TRUNCATED_HEADER, "true");
+			response.setHeader(TRUNCATED_CONDITIONS_HEADER, truncatedIndexes.toString());
+			response.setHeader(LIMIT_HEADER, String.valueOf(resultLimit.getMaxRows()));
+		}
+		return limitedResults;
+	}
+
+	private void limited(String endpoint, String action) {
+		meterRegistry.counter("member.search.result.limited", "endpoint", endpoint, "action", action).increment();
+	}
+
+	// 열 순서는 MemberRepositoryCustom.streamSearch와 같다.
+	private static MemberTeamDto toDto(Tuple row) {
+		return new MemberTeamDto(row.get(0, Long.class), row.get(1, String.class), row.get(2, Integer.class),
+			row.get(3, Long.class), row.get(4, String.class));
+	}
+
+	// 응답 형식이 Accept로 정해지므로 ETag에 Accept를 넣고 Vary: Accept로 캐시에도 알린다. (304 응답에도 붙는다)
+	private boolean notModified(MemberSearchCondition condition, Pageable pageable, WebRequest request,
+		HttpServletResponse response) {
+		response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+		String accept = request.getHeader(HttpHeaders.ACCEPT);
+		return request.checkNotModified(dataVersion.etag(condition, pageable, accept != null ? accept : "*/*"));
+	}
+
+	// search.direct-json.enabled이고 클라이언트가 JSON을 가장 원할 때만 (CBOR, member rows 요청은 기존 경로)
+	private boolean writesJsonDirectly(WebRequest request) {
+		return directJson.isEnabled() && prefersJson(request);
+	}
+
+	private boolean prefersJson(WebRequest request) {
+		String accept = request.getHeader(HttpHeaders.ACCEPT);
+		if (accept == null) {
+			return true;
+		}
+		List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+		MimeTypeUtils.sortBySpecificity(accepted);
+		return !accepted.isEmpty() && accepted.get(0).isCompatibleWith(MediaType.APPLICATION_JSON);
+	}
+
+	// 응답을 직접 썼으므로 핸들러는 null을 돌려준다. (메시지 컨버터를 거치지 않는다)
+	// 쓰는 중 연결이 끊기면 결과 스트림이 닫히면서 아직 읽는 중인 쿼리도 정리된다.
+	private <T> T writeJson(String endpoint, HttpServletResponse response, JsonBody body) {
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		try {
+			body.writeTo(response.getOutputStream());
+		} catch (IOException e) {
+			throw new SearchCancelledException(endpoint, e);
+		}
+		return null;
+	}
+
+	@FunctionalInterface
+	private interface JsonBody {
+		void writeTo(OutputStream out) throws IOException;
 	}
 }
@@ -0,0 +1,19 @@
+package com.sparta.querydsltest.dto;
+
+/**
+ * 정확한 count 대신 쓰는 대략적인 전체 건수.
+ *
+ * EXACT: 상한(cap)보다 적어서 끝까지 센 값
+ * AT_LEAST: 상한까지만 셌다. 실제 건수는 count 이상이다.
+ * ESTIMATE: 조건이 없을 때 DB 통계(행 수 추정치)에서 읽은 값
+ */
+public record ApproximateCount(long count, Kind kind) {
+
+	public enum Kind {
+		EXACT, AT_LEAST, ESTIMATE
+	}
+
+	public boolean isApproximate() {
+		return kind != Kind.EXACT;
+	}
+}
@@ -0,0 +1,31 @@
+package com.sparta.querydsltest.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class MemberAgeRankDto {
+
+	private Long memberId;
+	private String username;
+	private int age;
+	private Long teamId;
+	private String teamName;
+	// 팀 안에서 나이가 많은 순서 (같은 나이는 같은 순위)
+	private long rankInTeam;
+	private double teamAvgAge;
+	private double diffFromTeamAvg;
+
+	public MemberAgeRankDto(Long memberId, String username, int age, Long teamId, String teamName,
+		long rankInTeam, double teamAvgAge) {
+		this.memberId = memberId;
+		this.username = username;
+		this.age = age;
+		this.teamId = teamId;
+		this.teamName = teamName;
+		this.rankInTeam = rankInTeam;
+		this.teamAvgAge = teamAvgAge;
+		this.diffFromTeamAvg = age - teamAvgAge;
+	}
+}
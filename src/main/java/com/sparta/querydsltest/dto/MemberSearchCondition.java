@@ -1,5 +1,9 @@
 package com.sparta.querydsltest.dto;
 
+import static org.springframework.util.StringUtils.*;
+
+import com.sparta.querydsltest.entity.Member;
+
 import lombok.Data;
 
 @Data
@@ -9,4 +13,21 @@ public class MemberSearchCondition {
 	private String teamName;
 	private Integer ageGoe;
 	private Integer ageLoe;
+	// 회원명 비교 방식 (없으면 EXACT)
+	private UsernameMatch usernameMatch;
+
+	// 쿼리의 hasText 기준과 동일하게 빈 문자열은 조건 없음(null)으로 맞춘 복사본
+	// 같은 결과를 내는 조건은 equals/hashCode도 같아지므로 캐시 키 등으로 사용할 수 있다.
+	public MemberSearchCondition normalized() {
+		MemberSearchCondition normalized = new MemberSearchCondition();
+		UsernameMatch match = usernameMatch != null ? usernameMatch : UsernameMatch.EXACT;
+		// 대소문자를 무시하는 조건은 소문자로 맞춰 두면 결과가 같은 조건끼리 같은 키가 된다.
+		normalized.setUsername(!hasText(username) ? null
+			: match == UsernameMatch.EXACT ? username : Member.normalizeUsername(username));
+		normalized.setUsernameMatch(match);
+		normalized.setTeamName(hasText(teamName) ? teamName : null);
+		normalized.setAgeGoe(ageGoe);
+		normalized.setAgeLoe(ageLoe);
+		return normalized;
+	}
 }
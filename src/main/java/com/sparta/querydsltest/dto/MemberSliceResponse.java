@@ -0,0 +1,14 @@
+package com.sparta.querydsltest.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
+// /v4/members 응답. total은 요청했을 때만 채우고 항상 대략값이다. (ApproximateCount.kind 참고)
+public record MemberSliceResponse(List<MemberTeamDto> content, int number, int size, boolean hasNext,
+	ApproximateCount total) {
+
+	public static MemberSliceResponse of(Slice<MemberTeamDto> slice, ApproximateCount total) {
+		return new MemberSliceResponse(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(), total);
+	}
+}
@@ -0,0 +1,190 @@
+package com.sparta.querydsltest.dto;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 회원/팀 검색 결과를 열(column) 단위 기본형 배열로 담는다.
+ *
+ * 행마다 MemberTeamDto와 Long 박싱 객체를 만들지 않으므로 수백만 행을 집계하는 내부 배치에서 쓴다.
+ * 팀 이름은 사전(teamNames)에 한 번만 담고 행에는 사전 인덱스만 둔다.
+ * 팀이 없는 회원은 teamId = NO_TEAM, teamNameCode = -1 이다.
+ */
+public final class MemberTeamColumns {
+
+	public static final long NO_TEAM = 0L;
+
+	private final int size;
+	private final long[] memberIds;
+	private final String[] usernames;
+	private final int[] ages;
+	private final long[] teamIds;
+	private final int[] teamNameCodes;
+	private final String[] teamNames;
+
+	private MemberTeamColumns(Builder builder) {
+		this.size = builder.size;
+		this.memberIds = Arrays.copyOf(builder.memberIds, size);
+		this.usernames = Arrays.copyOf(builder.usernames, size);
+		this.ages = Arrays.copyOf(builder.ages, size);
+		this.teamIds = Arrays.copyOf(builder.teamIds, size);
+		this.teamNameCodes = Arrays.copyOf(builder.teamNameCodes, size);
+		this.teamNames = Arrays.copyOf(builder.dictionary, builder.dictionarySize);
+	}
+
+	public static Builder builder(int expectedSize) {
+		return new Builder(expectedSize);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	// 아래 배열들은 복사하지 않고 그대로 돌려준다. 읽기 전용으로 사용한다.
+	public long[] memberIds() {
+		return memberIds;
+	}
+
+	public String[] usernames() {
+		return usernames;
+	}
+
+	public int[] ages() {
+		return ages;
+	}
+
+	public long[] teamIds() {
+		return teamIds;
+	}
+
+	public int[] teamNameCodes() {
+		return teamNameCodes;
+	}
+
+	public String[] teamNames() {
+		return teamNames;
+	}
+
+	public String teamName(int row) {
+		int code = teamNameCodes[row];
+		return code < 0 ? null : teamNames[code];
+	}
+
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * 행을 하나씩 옮겨가며 읽는다. 커서 하나만 만들고 행마다 객체를 만들지 않는다.
+	 *
+	 * while (cursor.next()) { sum += cursor.age(); }
+	 */
+	public final class Cursor {
+
+		private int row = -1;
+
+		private Cursor() {
+		}
+
+		public boolean next() {
+			return ++row < size;
+		}
+
+		public int row() {
+			return row;
+		}
+
+		public long memberId() {
+			return memberIds[row];
+		}
+
+		public String username() {
+			return usernames[row];
+		}
+
+		public int age() {
+			return ages[row];
+		}
+
+		public boolean hasTeam() {
+			return teamIds[row] != NO_TEAM;
+		}
+
+		public long teamId() {
+			return teamIds[row];
+		}
+
+		public int teamNameCode() {
+			return teamNameCodes[row];
+		}
+
+		public String teamName() {
+			return MemberTeamColumns.this.teamName(row);
+		}
+	}
+
+	public static final class Builder {
+
+		private int size;
+		private long[] memberIds;
+		private String[] usernames;
+		private int[] ages;
+		private long[] teamIds;
+		private int[] teamNameCodes;
+		private String[] dictionary = new String[8];
+		private int dictionarySize;
+		private final Map<String, Integer> codes = new HashMap<>();
+
+		private Builder(int expectedSize) {
+			int capacity = Math.max(expectedSize, 16);
+			memberIds = new long[capacity];
+			usernames = new String[capacity];
+			ages = new int[capacity];
+			teamIds = new long[capacity];
+			teamNameCodes = new int[capacity];
+		}
+
+		public Builder add(long memberId, String username, int age, Long teamId, String teamName) {
+			if (size == memberIds.length) {
+				grow();
+			}
+			memberIds[size] = memberId;
+			usernames[size] = username;
+			ages[size] = age;
+			teamIds[size] = teamId != null ? teamId : NO_TEAM;
+			teamNameCodes[size] = encode(teamName);
+			size++;
+			return this;
+		}
+
+		public MemberTeamColumns build() {
+			return new MemberTeamColumns(this);
+		}
+
+		private int encode(String teamName) {
+			if (teamName == null) {
+				return -1;
+			}
+			Integer code = codes.get(teamName);
+			if (code != null) {
+				return code;
+			}
+			if (dictionarySize == dictionary.length) {
+				dictionary = Arrays.copyOf(dictionary, dictionarySize * 2);
+			}
+			dictionary[dictionarySize] = teamName;
+			codes.put(teamName, dictionarySize);
+			return dictionarySize++;
+		}
+
+		private void grow() {
+			int capacity = memberIds.length + (memberIds.length >> 1);
+			memberIds = Arrays.copyOf(memberIds, capacity);
+			usernames = Arrays.copyOf(usernames, capacity);
+			ages = Arrays.copyOf(ages, capacity);
+			teamIds = Arrays.copyOf(teamIds, capacity);
+			teamNameCodes = Arrays.copyOf(teamNameCodes, capacity);
+		}
+	}
+}
@@ -0,0 +1,11 @@
+package com.sparta.querydsltest.dto;
+
+// 회원명 조건 비교 방식. 대소문자 무시 비교는 정규화된 회원명 컬럼(username_normalized)과 비교해서 인덱스를 탄다.
+public enum UsernameMatch {
+	// 대소문자 구분, 전체 일치 (기본)
+	EXACT,
+	// 대소문자 무시, 전체 일치
+	IGNORE_CASE,
+	// 대소문자 무시, 앞부분 일치
+	PREFIX_IGNORE_CASE
+}
@@ -1,12 +1,24 @@
 package com.sparta.querydsltest.entity;
 
+import java.time.Instant;
+import java.util.Locale;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.sparta.querydsltest.cache.ClusterInvalidationListener;
+import com.sparta.querydsltest.cache.DataVersionListener;
+import com.sparta.querydsltest.cache.MemberLookupCacheListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -14,6 +26,11 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
+@EntityListeners({DataVersionListener.class, MemberLookupCacheListener.class, ClusterInvalidationListener.class})
+@Table(indexes = {
+	@Index(name = "idx_member_modified_at", columnList = "modified_at"),
+	@Index(name = "idx_member_username_normalized", columnList = "username_normalized")
+})
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -24,10 +41,20 @@ public class Member {
 	@Column(name = "member_id")
 	private Long id;
 	private String username;
+	// 대소문자 무시 검색용 소문자 회원명. setUsername으로 바꿀 때 같이 바뀐다.
+	// 벌크 수정(JPQL/QueryDSL update, 네이티브 SQL)은 엔티티를 거치지 않으므로 username을 바꾸면
+	// 이 컬럼도 normalizeUsername 값으로 같이 set 해야 한다. (안 하면 IGNORE_CASE 검색이 옛 이름으로 찾는다)
+	@Setter(AccessLevel.NONE)
+	@Column(name = "username_normalized")
+	private String usernameNormalized;
 	private int age;
 	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "team_id")
 	private Team team;
+	// 추가/수정 시각. 스냅샷 이후 변경분을 따라잡을 때 사용한다.
+	@UpdateTimestamp
+	@Column(name = "modified_at")
+	private Instant modifiedAt;
 
 	public Member(String username) {
 		this(username, 0);
@@ -38,13 +65,23 @@ public class Member {
 	}
 
 	public Member(String username, int age, Team team) {
-		this.username = username;
+		setUsername(username);
 		this.age = age;
 		if (team != null) {
 			changeTeam(team);
 		}
 	}
 
+	public void setUsername(String username) {
+		this.username = username;
+		this.usernameNormalized = normalizeUsername(username);
+	}
+
+	// 로케일에 따라 결과가 달라지지 않도록 ROOT로 소문자 변환한다. (터키어 i 등)
+	public static String normalizeUsername(String username) {
+		return username != null ? username.toLowerCase(Locale.ROOT) : null;
+	}
+
 	public void changeTeam(Team team) {
 		this.team = team;
 		team.getMembers().add(this);
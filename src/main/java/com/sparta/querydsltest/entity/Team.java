@@ -1,13 +1,23 @@
 package com.sparta.querydsltest.entity;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.sparta.querydsltest.cache.ClusterInvalidationListener;
+import com.sparta.querydsltest.cache.DataVersionListener;
+import com.sparta.querydsltest.cache.MemberLookupCacheListener;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -15,6 +25,8 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
+@EntityListeners({DataVersionListener.class, MemberLookupCacheListener.class, ClusterInvalidationListener.class})
+@Table(indexes = @Index(name = "idx_team_modified_at", columnList = "modified_at"))
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -26,6 +38,10 @@ public class Team {
 
 	private String name;
 
+	@UpdateTimestamp
+	@Column(name = "modified_at")
+	private Instant modifiedAt;
+
 	@OneToMany(mappedBy = "team")
 	private List<Member> members = new ArrayList<>();
 
@@ -0,0 +1,99 @@
+package com.sparta.querydsltest.export;
+
+import com.sparta.querydsltest.dto.MemberTeamDto;
+
+public enum ExportFormat {
+
+	CSV("csv") {
+		@Override
+		String header() {
+			return "member_id,username,age,team_id,team_name\n";
+		}
+
+		@Override
+		void append(StringBuilder out, MemberTeamDto row) {
+			out.append(row.getMemberId()).append(',');
+			csv(out, row.getUsername());
+			out.append(',').append(row.getAge()).append(',');
+			if (row.getTeamId() != null) {
+				out.append(row.getTeamId());
+			}
+			out.append(',');
+			csv(out, row.getTeamName());
+			out.append('\n');
+		}
+	},
+
+	NDJSON("ndjson") {
+		@Override
+		String header() {
+			return "";
+		}
+
+		@Override
+		void append(StringBuilder out, MemberTeamDto row) {
+			out.append("{\"memberId\":").append(row.getMemberId())
+				.append(",\"username\":");
+			json(out, row.getUsername());
+			out.append(",\"age\":").append(row.getAge())
+				.append(",\"teamId\":").append(row.getTeamId())
+				.append(",\"teamName\":");
+			json(out, row.getTeamName());
+			out.append("}\n");
+		}
+	};
+
+	private final String extension;
+
+	ExportFormat(String extension) {
+		this.extension = extension;
+	}
+
+	public String extension() {
+		return extension;
+	}
+
+	abstract String header();
+
+	abstract void append(StringBuilder out, MemberTeamDto row);
+
+	// 쉼표, 따옴표, 줄바꿈이 있을 때만 따옴표로 감싼다. (RFC 4180)
+	private static void csv(StringBuilder out, String value) {
+		if (value == null) {
+			return;
+		}
+		boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+			|| value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+		if (!quote) {
+			out.append(value);
+			return;
+		}
+		out.append('"').append(value.replace("\"", "\"\"")).append('"');
+	}
+
+	private static void json(StringBuilder out, String value) {
+		if (value == null) {
+			out.append("null");
+			return;
+		}
+		out.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"' -> out.append("\\\"");
+				case '\\' -> out.append("\\\\");
+				case '\n' -> out.append("\\n");
+				case '\r' -> out.append("\\r");
+				case '\t' -> out.append("\\t");
+				default -> {
+					if (c < 0x20) {
+						out.append(String.format("\\u%04x", (int)c));
+					} else {
+						out.append(c);
+					}
+				}
+			}
+		}
+		out.append('"');
+	}
+}
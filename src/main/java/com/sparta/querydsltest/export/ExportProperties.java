@@ -0,0 +1,19 @@
+package com.sparta.querydsltest.export;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "member.export")
+public class ExportProperties {
+
+	// 켜면 cron마다 directory에 members-yyyyMMdd.<확장자> 파일을 만든다.
+	private boolean enabled = false;
+	private String cron = "0 0 3 * * *";
+	private String directory = "export";
+	private ExportFormat format = ExportFormat.CSV;
+	private int partitions = 4;
+}
@@ -0,0 +1,301 @@
+package com.sparta.querydsltest.export;
+
+import static com.sparta.querydsltest.entity.QMember.*;
+import static com.sparta.querydsltest.entity.QTeam.*;
+import static java.nio.charset.StandardCharsets.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.sparta.querydsltest.dto.MemberTeamDto;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 전체 회원을 파일로 내보낸다.
+ *
+ * member_id 범위를 partitions 개로 나눠 각 구간을 pool 스레드에서 병렬로 읽는다. 구간마다 자기 스레드에 묶인
+ * 읽기 전용 REPEATABLE_READ 트랜잭션(= 별도 EntityManager, 별도 커넥션)을 쓰고, 구간별 세그먼트 파일에 쓴 뒤
+ * 마지막에 transferTo로 하나의 파일로 합친다. 구간 안에서는 id 기준 keyset 페이징으로 CHUNK_SIZE씩 읽는다.
+ *
+ * 일관성: 시작할 때 읽은 최대 id까지만 내보내므로 내보내는 도중에 추가된 회원은 들어가지 않는다.
+ * 구간 하나는 한 트랜잭션이라 그 안에서는 한 시점의 데이터지만, 구간끼리는 트랜잭션 시작 시점이 조금씩 달라서
+ * 그 사이에 커밋된 수정/삭제는 구간에 따라 반영되기도 하고 안 되기도 한다. (하나의 트랜잭션으로 읽으면 읽기가 다시 한 스레드가 된다)
+ * 구간마다 커넥션을 하나씩 쓰므로 partitions는 커넥션 풀 크기보다 작게 잡는다.
+ * 실패하면 남은 구간 읽기를 멈추고 세그먼트와 합치던 임시 파일을 지운다. target은 성공했을 때만 교체된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MemberExportJob {
+
+	static final int CHUNK_SIZE = 1_000;
+	static final int BUFFER_SIZE = 1 << 20;
+
+	private final EntityManager em;
+	private final JPAQueryFactory queryFactory;
+	private final PlatformTransactionManager transactionManager;
+
+	public record ExportResult(Path file, long rows, long bytes, int partitions, long elapsedMillis) {
+	}
+
+	public ExportResult export(Path target, ExportFormat format, int partitions) throws IOException {
+		if (partitions <= 0) {
+			throw new IllegalArgumentException("partitions must be positive: " + partitions);
+		}
+		long start = System.nanoTime();
+		Path merging = target.resolveSibling(target.getFileName() + ".tmp");
+		List<Segment> segments = new ArrayList<>();
+		ForkJoinPool pool = new ForkJoinPool(partitions);
+		AtomicBoolean failed = new AtomicBoolean();
+		boolean completed = false;
+		try {
+			long rows = readAll(target, format, partitions, segments, pool, failed);
+			for (Segment segment : segments) {
+				segment.finish();
+			}
+			long bytes = merge(merging, format, segments);
+			Files.move(merging, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			completed = true;
+			return new ExportResult(target, rows, bytes, partitions, (System.nanoTime() - start) / 1_000_000);
+		} catch (CompletionException | UncheckedIOException e) {
+			throw ioException(e);
+		} finally {
+			failed.set(!completed);
+			pool.shutdown();
+			awaitReaders(pool);
+			cleanUp(segments, completed ? null : merging);
+		}
+	}
+
+	private TransactionTemplate readOnly() {
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		tx.setReadOnly(true);
+		tx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+		return tx;
+	}
+
+	// 구간마다 pool에서 읽기를 시작하고 모두 끝날 때까지 기다린다. 하나라도 실패하면 나머지는 다음 청크에서 멈춘다.
+	private long readAll(Path target, ExportFormat format, int partitions, List<Segment> segments,
+		ForkJoinPool pool, AtomicBoolean failed) {
+		// 최대 id가 워터마크다. 이후 추가되는 회원은 이보다 큰 id를 받는다.
+		Tuple range = queryFactory
+			.select(member.id.min(), member.id.max())
+			.from(member)
+			.fetchOne();
+		Long minId = range.get(member.id.min());
+		Long maxId = range.get(member.id.max());
+		if (minId == null) {
+			return 0;
+		}
+
+		long step = (maxId - minId + partitions) / partitions;
+		List<CompletableFuture<Long>> readers = new ArrayList<>();
+		for (int i = 0; i < partitions; i++) {
+			long from = minId + i * step;
+			long to = Math.min(from + step, maxId + 1);
+			if (from > maxId) {
+				break;
+			}
+			Segment segment = new Segment(target.resolveSibling(target.getFileName() + ".part" + i), format);
+			segments.add(segment);
+			readers.add(CompletableFuture
+				.supplyAsync(() -> readOnly().execute(status -> readRange(from, to, segment, failed)), pool)
+				.whenComplete((rows, e) -> {
+					if (e != null) {
+						failed.set(true);
+					}
+				}));
+		}
+
+		long rows = 0;
+		for (CompletableFuture<Long> reader : readers) {
+			rows += reader.join();
+		}
+		return rows;
+	}
+
+	// [from, to) 구간을 읽어 segment에 쓴다. 호출한 스레드의 트랜잭션에 묶인 EntityManager로 읽는다.
+	private long readRange(long from, long to, Segment segment, AtomicBoolean failed) {
+		long rows = 0;
+		long lastId = from - 1;
+		while (!failed.get()) {
+			List<MemberTeamDto> chunk = queryFactory
+				.select(Projections.fields(MemberTeamDto.class,
+					member.id.as("memberId"),
+					member.username,
+					member.age,
+					team.id.as("teamId"),
+					team.name.as("teamName")))
+				.from(member)
+				.leftJoin(member.team, team)
+				.where(member.id.gt(lastId), member.id.lt(to))
+				.orderBy(member.id.asc())
+				.limit(CHUNK_SIZE)
+				.fetch();
+			if (chunk.isEmpty()) {
+				break;
+			}
+			segment.append(chunk);
+			rows += chunk.size();
+			lastId = chunk.get(chunk.size() - 1).getMemberId();
+			em.clear();
+		}
+		return rows;
+	}
+
+	// 실패했을 때 세그먼트를 지우기 전에 아직 쓰고 있는 구간이 멈추기를 기다린다.
+	private void awaitReaders(ForkJoinPool pool) {
+		try {
+			if (!pool.awaitTermination(30, TimeUnit.SECONDS)) {
+				log.warn("member export readers did not stop in time");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private long merge(Path merging, ExportFormat format, List<Segment> segments) throws IOException {
+		try (FileChannel out = FileChannel.open(merging,
+			StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			ByteBuffer header = ByteBuffer.wrap(format.header().getBytes(UTF_8));
+			while (header.hasRemaining()) {
+				out.write(header);
+			}
+			for (Segment segment : segments) {
+				try (FileChannel in = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+					long size = in.size();
+					long position = 0;
+					while (position < size) {
+						position += in.transferTo(position, size - position, out);
+					}
+				}
+			}
+			return out.size();
+		}
+	}
+
+	private static IOException ioException(Throwable e) {
+		Throwable cause = e;
+		while ((cause instanceof CompletionException || cause instanceof UncheckedIOException)
+			&& cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+		return cause instanceof IOException io ? io : new IOException(cause);
+	}
+
+	private void cleanUp(List<Segment> segments, Path merging) {
+		List<Path> files = new ArrayList<>();
+		for (Segment segment : segments) {
+			segment.close();
+			files.add(segment.path);
+		}
+		if (merging != null) {
+			files.add(merging);
+		}
+		for (Path file : files) {
+			try {
+				Files.deleteIfExists(file);
+			} catch (IOException e) {
+				log.warn("failed to delete export file {}", file, e);
+			}
+		}
+	}
+
+	// 한 구간의 세그먼트 파일. 그 구간을 읽는 스레드만 쓴다.
+	private static final class Segment {
+
+		private final Path path;
+		private final ExportFormat format;
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		private final CharsetEncoder encoder = UTF_8.newEncoder();
+		private final StringBuilder text = new StringBuilder(CHUNK_SIZE * 64);
+
+		Segment(Path path, ExportFormat format) {
+			this.path = path;
+			this.format = format;
+			try {
+				this.channel = FileChannel.open(path,
+					StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		void append(List<MemberTeamDto> chunk) {
+			text.setLength(0);
+			for (MemberTeamDto row : chunk) {
+				format.append(text, row);
+			}
+			try {
+				write(text);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		// 버퍼에 남은 내용을 쓰고 닫는다.
+		void finish() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.close();
+		}
+
+		void close() {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				log.warn("failed to close export segment {}", path, e);
+			}
+		}
+
+		private void write(CharSequence text) throws IOException {
+			CharBuffer chars = CharBuffer.wrap(text);
+			while (true) {
+				CoderResult result = encoder.encode(chars, buffer, true);
+				if (result.isOverflow()) {
+					buffer.flip();
+					while (buffer.hasRemaining()) {
+						channel.write(buffer);
+					}
+					buffer.clear();
+					continue;
+				}
+				if (result.isError()) {
+					result.throwException();
+				}
+				break;
+			}
+			encoder.reset();
+		}
+	}
+}
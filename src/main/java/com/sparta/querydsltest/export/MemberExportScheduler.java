@@ -0,0 +1,46 @@
+package com.sparta.querydsltest.export;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 매일 밤 전체 회원을 내보낸다. (member.export.enabled)
+ * 같은 날 다시 실행하면 그날 파일을 덮어쓴다. 실패하면 이전 파일은 그대로 남는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "member.export", name = "enabled", havingValue = "true")
+public class MemberExportScheduler {
+
+	private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+	private final MemberExportJob memberExportJob;
+	private final ExportProperties properties;
+
+	@Scheduled(cron = "${member.export.cron:0 0 3 * * *}")
+	public void exportNightly() {
+		Path directory = Path.of(properties.getDirectory());
+		Path target = directory.resolve(
+			"members-" + LocalDate.now().format(FILE_DATE) + "." + properties.getFormat().extension());
+		try {
+			Files.createDirectories(directory);
+			MemberExportJob.ExportResult result = memberExportJob.export(target, properties.getFormat(),
+				properties.getPartitions());
+			log.info("member export finished: {} rows, {} bytes in {} ms -> {}",
+				result.rows(), result.bytes(), result.elapsedMillis(), result.file());
+		} catch (IOException | RuntimeException e) {
+			log.error("member export failed: {}", target, e);
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package com.sparta.querydsltest.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * id 목록을 IN 절용 묶음으로 나눈다.
+ *
+ * 각 묶음은 2의 거듭제곱 크기로 마지막 id를 반복해서 채운다. (IN 절 파라미터 수가 1, 2, 4, ... maxChunkSize 중 하나라
+ * 쿼리 플랜 캐시 항목 수가 log2(maxChunkSize) + 1개로 제한된다) 같은 id가 반복돼도 결과 행은 늘지 않는다.
+ */
+final class IdChunks {
+
+	private IdChunks() {
+	}
+
+	static List<List<Long>> padded(List<Long> ids, int maxChunkSize) {
+		if (Integer.bitCount(maxChunkSize) != 1) {
+			throw new IllegalArgumentException("maxChunkSize must be a power of two: " + maxChunkSize);
+		}
+		List<List<Long>> chunks = new ArrayList<>((ids.size() + maxChunkSize - 1) / maxChunkSize);
+		for (int from = 0; from < ids.size(); from += maxChunkSize) {
+			List<Long> chunk = ids.subList(from, Math.min(from + maxChunkSize, ids.size()));
+			int size = paddedSize(chunk.size());
+			List<Long> padded = new ArrayList<>(size);
+			padded.addAll(chunk);
+			Long last = chunk.get(chunk.size() - 1);
+			while (padded.size() < size) {
+				padded.add(last);
+			}
+			chunks.add(padded);
+		}
+		return chunks;
+	}
+
+	static int paddedSize(int size) {
+		return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+	}
+}
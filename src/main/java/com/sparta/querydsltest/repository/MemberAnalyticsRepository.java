@@ -0,0 +1,91 @@
+package com.sparta.querydsltest.repository;
+
+import static com.sparta.querydsltest.entity.QMember.*;
+import static com.sparta.querydsltest.entity.QTeam.*;
+import static com.sparta.querydsltest.repository.MemberSearchPredicates.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Repository;
+
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberTemplate;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.sparta.querydsltest.dto.MemberAgeRankDto;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 팀 단위 나이 통계. 서브쿼리(JPAExpressions) 대신 윈도우 함수를 써서 회원 테이블을 한 번만 읽는다.
+ * (팀마다 max/avg를 다시 계산하는 상관 서브쿼리는 행 수의 제곱으로 느려진다)
+ * 팀이 없는 회원은 제외한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MemberAnalyticsRepository {
+
+	private static final NumberTemplate<Long> RANK_IN_TEAM = Expressions.numberTemplate(Long.class,
+		"rank() over (partition by {0} order by {1} desc)", team.id, member.age);
+	private static final NumberTemplate<Double> TEAM_AVG_AGE = Expressions.numberTemplate(Double.class,
+		"avg({0}) over (partition by {1})", member.age, team.id);
+
+	// QueryDSL JPA는 from 절 서브쿼리를 지원하지 않아 순위로 거르는 쿼리는 HQL로 작성한다.
+	private static final String TOP_BY_AGE_PER_TEAM = """
+		select new com.sparta.querydsltest.dto.MemberAgeRankDto(
+			r.memberId, r.username, r.age, r.teamId, r.teamName, r.rankInTeam, r.teamAvgAge)
+		from (
+			select m.id as memberId, m.username as username, m.age as age, t.id as teamId, t.name as teamName,
+				rank() over (partition by t.id order by m.age desc) as rankInTeam,
+				row_number() over (partition by t.id order by m.age desc, m.id) as rowInTeam,
+				avg(m.age) over (partition by t.id) as teamAvgAge
+			from Member m
+			join m.team t
+		) r
+		where r.rowInTeam <= :limit
+		order by r.teamId, r.rowInTeam
+		""";
+
+	private final EntityManager em;
+	private final JPAQueryFactory queryFactory;
+	private final SearchQueryHints hints;
+
+	// 팀 안 나이 순위와 팀 평균과의 차이. teamName이 없으면 전체 팀 (팀 id, 나이 내림차순으로 페이지를 나눈다)
+	// 순위와 평균은 페이지를 자르기 전 전체 행 기준으로 계산된다. count 쿼리 없이 다음 페이지 유무만 알려준다.
+	public Slice<MemberAgeRankDto> rankByAgeInTeam(String teamName, Pageable pageable) {
+		JPAQuery<MemberAgeRankDto> query = queryFactory
+			.select(Projections.constructor(MemberAgeRankDto.class,
+				member.id,
+				member.username,
+				member.age,
+				team.id,
+				team.name,
+				RANK_IN_TEAM,
+				TEAM_AVG_AGE))
+			.from(member)
+			.join(member.team, team)
+			.where(teamNameEq(teamName))
+			.orderBy(team.id.asc(), member.age.desc(), member.id.asc())
+			.offset(pageable.getOffset())
+			.limit(pageable.getPageSize() + 1L);
+		List<MemberAgeRankDto> rows = hints.apply(query, "rankByAgeInTeam").fetch();
+
+		boolean hasNext = rows.size() > pageable.getPageSize();
+		List<MemberAgeRankDto> content = hasNext ? new ArrayList<>(rows.subList(0, pageable.getPageSize())) : rows;
+		return new SliceImpl<>(content, pageable, hasNext);
+	}
+
+	// 팀마다 나이가 많은 순서로 최대 limit명. 같은 나이면 id가 작은 회원이 먼저다.
+	public List<MemberAgeRankDto> topByAgePerTeam(int limit) {
+		TypedQuery<MemberAgeRankDto> query = em.createQuery(TOP_BY_AGE_PER_TEAM, MemberAgeRankDto.class)
+			.setParameter("limit", (long)limit);
+		return hints.apply(query, "topByAgePerTeam").getResultList();
+	}
+}
@@ -0,0 +1,146 @@
+package com.sparta.querydsltest.repository;
+
+import static com.sparta.querydsltest.entity.QMember.*;
+import static com.sparta.querydsltest.entity.QTeam.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Repository;
+
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.sparta.querydsltest.cache.MemberLookupCache;
+import com.sparta.querydsltest.dto.MemberTeamDto;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * 많은 회원 id를 한 번에 MemberTeamDto로 바꾼다.
+ *
+ * MemberLookupCache(member.snapshot.enabled)에 있는 id는 쿼리 없이 채우고, 나머지는 IdChunks 묶음으로 IN 조회한다.
+ * idChunkParallelism이 2 이상이면 묶음마다 별도 EntityManager(읽기 전용)로 동시에 조회한다.
+ * 결과는 ids 순서를 따르며 없는 id는 빠지고 중복 id는 한 번만 들어간다.
+ * JPA 예외(쿼리 타임아웃 등)는 @Repository 예외 변환으로 스프링 DataAccessException이 된다.
+ */
+@Repository
+public class MemberBulkLookup implements DisposableBean {
+
+	private final ObjectProvider<MemberLookupCache> lookupCache;
+	private final JPAQueryFactory queryFactory;
+	private final EntityManagerFactory emf;
+	private final SearchQueryHints hints;
+	private final SearchQueryProperties properties;
+	private final ExecutorService executor;
+
+	public MemberBulkLookup(ObjectProvider<MemberLookupCache> lookupCache, JPAQueryFactory queryFactory, EntityManagerFactory emf,
+		SearchQueryHints hints, SearchQueryProperties properties) {
+		this.lookupCache = lookupCache;
+		this.queryFactory = queryFactory;
+		this.emf = emf;
+		this.hints = hints;
+		this.properties = properties;
+		this.executor = properties.getIdChunkParallelism() > 1
+			? Executors.newFixedThreadPool(properties.getIdChunkParallelism()) : null;
+	}
+
+	public List<MemberTeamDto> findByIds(Collection<Long> ids) {
+		LinkedHashSet<Long> distinct = new LinkedHashSet<>(ids);
+		distinct.remove(null);
+		Map<Long, MemberTeamDto> found = new HashMap<>(distinct.size() * 2);
+		List<Long> missing = new ArrayList<>();
+		MemberLookupCache cache = lookupCache.getIfAvailable();
+		for (Long id : distinct) {
+			if (cache == null) {
+				missing.add(id);
+				continue;
+			}
+			cache.find(id).ifPresentOrElse(row -> found.put(id, row), () -> missing.add(id));
+		}
+
+		List<List<Long>> chunks = IdChunks.padded(missing, properties.getIdChunkSize());
+		for (List<MemberTeamDto> rows : executor != null && chunks.size() > 1 ? fetchParallel(chunks) : fetch(chunks)) {
+			for (MemberTeamDto row : rows) {
+				found.put(row.getMemberId(), row);
+			}
+		}
+
+		List<MemberTeamDto> result = new ArrayList<>(found.size());
+		for (Long id : distinct) {
+			MemberTeamDto row = found.get(id);
+			if (row != null) {
+				result.add(row);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void destroy() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	private List<List<MemberTeamDto>> fetch(List<List<Long>> chunks) {
+		List<List<MemberTeamDto>> results = new ArrayList<>(chunks.size());
+		for (List<Long> chunk : chunks) {
+			results.add(query(queryFactory, chunk));
+		}
+		return results;
+	}
+
+	private List<List<MemberTeamDto>> fetchParallel(List<List<Long>> chunks) {
+		List<CompletableFuture<List<MemberTeamDto>>> futures = new ArrayList<>(chunks.size());
+		for (List<Long> chunk : chunks) {
+			futures.add(CompletableFuture.supplyAsync(() -> {
+				EntityManager em = emf.createEntityManager();
+				try {
+					return query(new JPAQueryFactory(em), chunk);
+				} finally {
+					em.close();
+				}
+			}, executor));
+		}
+		List<List<MemberTeamDto>> results = new ArrayList<>(chunks.size());
+		try {
+			for (CompletableFuture<List<MemberTeamDto>> future : futures) {
+				results.add(future.join());
+			}
+		} catch (CompletionException e) {
+			futures.forEach(future -> future.cancel(true));
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+		return results;
+	}
+
+	private List<MemberTeamDto> query(JPAQueryFactory factory, List<Long> ids) {
+		JPAQuery<MemberTeamDto> query = factory
+			.select(Projections.fields(MemberTeamDto.class,
+				member.id.as("memberId"),
+				member.username,
+				member.age,
+				team.id.as("teamId"),
+				team.name.as("teamName")))
+			.from(member)
+			.leftJoin(member.team, team)
+			.where(member.id.in(ids))
+			.setHint("org.hibernate.readOnly", true);
+		return hints.apply(query, "findByIds").fetch();
+	}
+}
@@ -0,0 +1,172 @@
+package com.sparta.querydsltest.repository;
+
+import static org.springframework.util.StringUtils.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.MappingMetamodel;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.sparta.querydsltest.dto.MemberSearchCondition;
+import com.sparta.querydsltest.dto.MemberTeamDto;
+import com.sparta.querydsltest.entity.Member;
+import com.sparta.querydsltest.entity.Team;
+import com.sparta.querydsltest.repository.MemberSearchPredicates.UsernameFilter;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * MemberTeamSearch의 SQL 구현. JPQL/엔티티 없이 SQL을 바로 실행하고 행을 MemberTeamDto로 만든다.
+ * search.query.native-methods에 메서드 이름을 넣으면 MemberRepositoryImpl이 이 구현으로 보낸다.
+ *
+ * 회원명 조건은 MemberSearchPredicates.UsernameFilter로 JPA 구현과 같은 규칙을 쓴다.
+ * 테이블/컬럼 이름은 시작할 때 Hibernate 매핑 메타모델에서 읽으므로 엔티티 매핑을 바꿔도 따라간다.
+ */
+@Component
+public class MemberJdbcSearch implements MemberTeamSearch {
+
+	private static final RowMapper<MemberTeamDto> ROW = (rs, rowNum) -> new MemberTeamDto(
+		rs.getLong(1),
+		rs.getString(2),
+		rs.getInt(3),
+		rs.getObject(4, Long.class),
+		rs.getString(5));
+
+	private final DataSource dataSource;
+	private final SearchQueryProperties properties;
+	private final Names names;
+	private final String select;
+	private final String count;
+	// 메서드별 타임아웃/fetch size를 적용한 템플릿
+	private final Map<String, NamedParameterJdbcTemplate> templates = new ConcurrentHashMap<>();
+
+	public MemberJdbcSearch(DataSource dataSource, EntityManagerFactory emf, SearchQueryProperties properties) {
+		this.dataSource = dataSource;
+		this.properties = properties;
+		this.names = Names.of(emf);
+		String from = " from " + names.member() + " m left join " + names.team() + " t on t." + names.teamId()
+			+ " = m." + names.memberTeam();
+		this.select = "select m." + names.memberId() + ", m." + names.username() + ", m." + names.age()
+			+ ", t." + names.teamId() + ", t." + names.teamName() + from;
+		this.count = "select count(*)" + from;
+	}
+
+	public boolean handles(String method) {
+		return properties.getNativeMethods().contains(method);
+	}
+
+	@Override
+	public List<MemberTeamDto> search(MemberSearchCondition condition) {
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		return template("search").query(select + where(condition, params), params, ROW);
+	}
+
+	@Override
+	public List<MemberTeamDto> search(MemberSearchCondition condition, int limit) {
+		MapSqlParameterSource params = new MapSqlParameterSource().addValue("limit", limit + 1);
+		return template("search").query(
+			select + where(condition, params) + " order by m." + names.memberId() + " limit :limit", params, ROW);
+	}
+
+	@Override
+	public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+		MapSqlParameterSource params = new MapSqlParameterSource()
+			.addValue("limit", pageable.getPageSize())
+			.addValue("offset", pageable.getOffset());
+		String where = where(condition, params);
+		NamedParameterJdbcTemplate template = template("searchPageSimple");
+		List<MemberTeamDto> content = template.query(select + where + " limit :limit offset :offset", params, ROW);
+		return PageableExecutionUtils.getPage(content, pageable,
+			() -> template.queryForObject(count + where, params, Long.class));
+	}
+
+	private NamedParameterJdbcTemplate template(String method) {
+		return templates.computeIfAbsent(method, key -> {
+			JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+			jdbcTemplate.setQueryTimeout(timeoutSeconds(properties.timeoutOf(key)));
+			jdbcTemplate.setFetchSize(properties.fetchSizeOf(key));
+			return new NamedParameterJdbcTemplate(jdbcTemplate);
+		});
+	}
+
+	// JDBC 타임아웃은 초 단위라서 올림한다. (1.5초 -> 2초, 자르면 JPA 경로보다 먼저 끊긴다)
+	static int timeoutSeconds(Duration timeout) {
+		return (int)Math.min(Integer.MAX_VALUE, Math.max(1, (timeout.toMillis() + 999) / 1_000));
+	}
+
+	private String where(MemberSearchCondition condition, MapSqlParameterSource params) {
+		StringBuilder where = new StringBuilder();
+		UsernameFilter username = UsernameFilter.of(condition.getUsername(), condition.getUsernameMatch());
+		if (username != null) {
+			String column = "m." + (username.normalized() ? names.usernameNormalized() : names.username());
+			if (username.prefix()) {
+				and(where, column + " like :username escape '!'");
+				params.addValue("username", escapeLike(username.value()) + "%");
+			} else {
+				and(where, column + " = :username");
+				params.addValue("username", username.value());
+			}
+		}
+		if (hasText(condition.getTeamName())) {
+			and(where, "t." + names.teamName() + " = :teamName");
+			params.addValue("teamName", condition.getTeamName());
+		}
+		if (condition.getAgeGoe() != null) {
+			and(where, "m." + names.age() + " >= :ageGoe");
+			params.addValue("ageGoe", condition.getAgeGoe());
+		}
+		if (condition.getAgeLoe() != null) {
+			and(where, "m." + names.age() + " <= :ageLoe");
+			params.addValue("ageLoe", condition.getAgeLoe());
+		}
+		return where.toString();
+	}
+
+	private static void and(StringBuilder where, String predicate) {
+		where.append(where.isEmpty() ? " where " : " and ").append(predicate);
+	}
+
+	// QueryDSL startsWith와 같은 이스케이프 문자(!)를 쓴다.
+	private static String escapeLike(String value) {
+		return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+	}
+
+	// Member, Team 엔티티 매핑의 테이블/컬럼 이름 (memberTeam은 member의 팀 외래 키)
+	record Names(String member, String memberId, String username, String usernameNormalized, String age,
+				 String memberTeam, String team, String teamId, String teamName) {
+
+		static Names of(EntityManagerFactory emf) {
+			MappingMetamodel metamodel = emf.unwrap(SessionFactoryImplementor.class).getMappingMetamodel();
+			AbstractEntityPersister member = (AbstractEntityPersister)metamodel.getEntityDescriptor(Member.class);
+			AbstractEntityPersister team = (AbstractEntityPersister)metamodel.getEntityDescriptor(Team.class);
+			return new Names(
+				member.getTableName(),
+				member.getIdentifierColumnNames()[0],
+				column(member, "username"),
+				column(member, "usernameNormalized"),
+				column(member, "age"),
+				column(member, "team"),
+				team.getTableName(),
+				team.getIdentifierColumnNames()[0],
+				column(team, "name"));
+		}
+
+		private static String column(AbstractEntityPersister persister, String property) {
+			return persister.getPropertyColumnNames(property)[0];
+		}
+	}
+}
@@ -2,17 +2,27 @@ package com.sparta.querydsltest.repository;
 
 import static com.sparta.querydsltest.entity.QMember.*;
 import static com.sparta.querydsltest.entity.QTeam.*;
+import static com.sparta.querydsltest.repository.MemberSearchPredicates.*;
 import static org.springframework.util.StringUtils.*;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import com.sparta.querydsltest.dto.MemberSearchCondition;
 import com.sparta.querydsltest.dto.MemberTeamDto;
@@ -27,6 +37,8 @@ public class MemberJpaRepository {
 
 	private final EntityManager em;
 	private final JPAQueryFactory queryFactory;
+	private final SearchQueryHints hints;
+	private final SearchQueryProperties properties;
 
 	public void save(Member member) {
 		em.persist(member);
@@ -37,6 +49,47 @@ public class MemberJpaRepository {
 		return Optional.ofNullable(findMember);
 	}
 
+	// 영속성 컨텍스트에 있는 회원은 쿼리 없이 꺼내고 나머지만 IN 절 묶음(IdChunks)으로 조회한다.
+	// 결과는 ids 순서를 따르며 없는 id는 빠지고 중복 id는 한 번만 들어간다.
+	// (트랜잭션 밖에서는 호출마다 영속성 컨텍스트가 새로 열리므로 확인하지 않는다)
+	public List<Member> findByIds(Collection<Long> ids) {
+		LinkedHashSet<Long> distinct = new LinkedHashSet<>(ids);
+		distinct.remove(null);
+		Map<Long, Member> found = new HashMap<>(distinct.size() * 2);
+		List<Long> missing = new ArrayList<>(distinct.size());
+		SessionImplementor session = TransactionSynchronizationManager.isActualTransactionActive()
+			? em.unwrap(SessionImplementor.class) : null;
+		EntityPersister persister = session != null
+			? session.getFactory().getMappingMetamodel().getEntityDescriptor(Member.class) : null;
+		for (Long id : distinct) {
+			Object managed = session != null
+				? session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister)) : null;
+			if (managed != null) {
+				found.put(id, (Member)managed);
+			} else {
+				missing.add(id);
+			}
+		}
+
+		for (List<Long> chunk : IdChunks.padded(missing, properties.getIdChunkSize())) {
+			JPAQuery<Member> query = queryFactory
+				.selectFrom(member)
+				.where(member.id.in(chunk));
+			for (Member loaded : hints.apply(query, "findByIds").fetch()) {
+				found.put(loaded.getId(), loaded);
+			}
+		}
+
+		List<Member> result = new ArrayList<>(found.size());
+		for (Long id : distinct) {
+			Member entity = found.get(id);
+			if (entity != null) {
+				result.add(entity);
+			}
+		}
+		return result;
+	}
+
 	public List<Member> findAll() {
 		return em.createQuery("select m from Member m", Member.class).getResultList();
 	}
@@ -64,7 +117,7 @@ public class MemberJpaRepository {
 	public List<MemberTeamDto> searchByBuilder(MemberSearchCondition condition) {
 		BooleanBuilder builder = new BooleanBuilder();
 		if (hasText(condition.getUsername())) {
-			builder.and(member.username.eq(condition.getUsername()));
+			builder.and(usernameEq(condition.getUsername(), condition.getUsernameMatch()));
 		}
 		if (hasText(condition.getTeamName())) {
 			builder.and(team.name.eq(condition.getTeamName()));
@@ -91,7 +144,7 @@ public class MemberJpaRepository {
 
 	// where절 파라미터를 사용한 동적 쿼리 생성
 	public List<MemberTeamDto> search(MemberSearchCondition condition) {
-		return queryFactory
+		JPAQuery<MemberTeamDto> query = queryFactory
 			.select(Projections.fields(MemberTeamDto.class,
 				member.id.as("memberId"),
 				member.username,
@@ -102,29 +155,12 @@ public class MemberJpaRepository {
 			.leftJoin(member.team, team)
 			.where(
 				// 동적 쿼리들
-				usernameEq(condition.getUsername()),
+				usernameEq(condition.getUsername(), condition.getUsernameMatch()),
 				teamNameEq(condition.getTeamName()),
 				ageGoe(condition.getAgeGoe()),
 				ageLoe(condition.getAgeLoe())
-			)
-			.fetch();
-	}
-
-	// Predicate보다 BooleanExpression을 사용하면 조건절 조립이 가능하다.
-	private BooleanExpression usernameEq(String username) {
-		return hasText(username) ? member.username.eq(username) : null;
-	}
-
-	private BooleanExpression teamNameEq(String teamName) {
-		return hasText(teamName) ? team.name.eq(teamName) : null;
-	}
-
-	private BooleanExpression ageGoe(Integer ageGoe) {
-		return ageGoe != null ? member.age.goe(ageGoe) : null;
-	}
-
-	private BooleanExpression ageLoe(Integer ageLoe) {
-		return ageLoe != null ? member.age.loe(ageLoe) : null;
+			);
+		return hints.apply(query, "search").fetch();
 	}
 
 	public List<Member> searchMember(MemberSearchCondition condition) {
@@ -132,7 +168,7 @@ public class MemberJpaRepository {
 			.selectFrom(member)
 			.leftJoin(member.team, team)
 			.where(
-				usernameEq(condition.getUsername()),
+				usernameEq(condition.getUsername(), condition.getUsernameMatch()),
 				teamNameEq(condition.getTeamName()),
 				ageBetween(condition.getAgeGoe(), condition.getAgeLoe())
 			)
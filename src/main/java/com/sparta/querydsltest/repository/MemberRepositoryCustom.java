@@ -1,15 +1,28 @@
 package com.sparta.querydsltest.repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import com.querydsl.core.Tuple;
+import com.sparta.querydsltest.dto.ApproximateCount;
 import com.sparta.querydsltest.dto.MemberSearchCondition;
+import com.sparta.querydsltest.dto.MemberTeamColumns;
 import com.sparta.querydsltest.dto.MemberTeamDto;
 
-public interface MemberRepositoryCustom {
-	List<MemberTeamDto> search(MemberSearchCondition condition);
-	Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable	);
+public interface MemberRepositoryCustom extends MemberTeamSearch {
 	Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
+	// 조건마다 id 순으로 limit + 1건까지 읽어서 호출한 쪽이 limit을 넘는지 알 수 있게 한다.
+	List<List<MemberTeamDto>> searchBatch(List<MemberSearchCondition> conditions, int limit);
+	// count 쿼리 없이 pageSize + 1건을 읽어 다음 페이지 유무만 판단한다.
+	Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable);
+	ApproximateCount approximateCount(MemberSearchCondition condition);
+	MemberTeamColumns searchColumns(MemberSearchCondition condition);
+
+	// DTO 없이 행을 그대로 돌려준다. 열 순서: member.id, member.username, member.age, team.id, team.name
+	Stream<Tuple> streamSearch(MemberSearchCondition condition);
+	Page<Tuple> searchPageTuples(MemberSearchCondition condition, Pageable pageable);
 }
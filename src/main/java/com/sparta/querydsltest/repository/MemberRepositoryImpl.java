@@ -2,37 +2,79 @@ package com.sparta.querydsltest.repository;
 
 import static com.sparta.querydsltest.entity.QMember.*;
 import static com.sparta.querydsltest.entity.QTeam.*;
-import static org.springframework.util.StringUtils.*;
+import static com.sparta.querydsltest.repository.MemberSearchPredicates.*;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.querydsl.core.QueryResults;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.Projections;
-import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAProvider;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUtil;
+import com.sparta.querydsltest.dto.ApproximateCount;
 import com.sparta.querydsltest.dto.MemberSearchCondition;
+import com.sparta.querydsltest.dto.MemberTeamColumns;
 import com.sparta.querydsltest.dto.MemberTeamDto;
+import com.sparta.querydsltest.dto.UsernameMatch;
 import com.sparta.querydsltest.entity.Member;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
 
 public class MemberRepositoryImpl implements MemberRepositoryCustom{
 
+	// 한 번의 쿼리에 묶는 최대 조건 수 (IN/OR 절이 너무 길어지지 않도록)
+	private static final int BATCH_CHUNK_SIZE = 50;
+	// searchColumns 결과 배열의 초기 크기
+	private static final int COLUMNS_INITIAL_CAPACITY = 1_000;
+
+	// H2 통계의 회원 테이블 행 수 추정치
+	private static final String MEMBER_ROW_ESTIMATE =
+		"select row_count_estimate from information_schema.tables where table_schema = schema() and table_name = 'MEMBER'";
+
+	private final EntityManager em;
 	private final JPAQueryFactory queryFactory;
+	private final SearchQueryHints hints;
+	private final SearchQueryProperties properties;
+	private final MemberJdbcSearch jdbcSearch;
 
-	public MemberRepositoryImpl(EntityManager em) {
+	public MemberRepositoryImpl(EntityManager em, SearchQueryHints hints, SearchQueryProperties properties,
+		MemberJdbcSearch jdbcSearch) {
+		this.em = em;
 		this.queryFactory = new JPAQueryFactory(em);
+		this.hints = hints;
+		this.properties = properties;
+		this.jdbcSearch = jdbcSearch;
 	}
 
 	@Override
 	public List<MemberTeamDto> search(MemberSearchCondition condition) {
-		return queryFactory
+		if (jdbcSearch.handles("search")) {
+			flushForJdbc();
+			return jdbcSearch.search(condition);
+		}
+		JPAQuery<MemberTeamDto> query = queryFactory
 			.select(Projections.fields(MemberTeamDto.class,
 				member.id.as("memberId"),
 				member.username,
@@ -43,17 +85,48 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom{
 			.leftJoin(member.team, team)
 			.where(
 				// 동적 쿼리들
-				usernameEq(condition.getUsername()),
+				usernameEq(condition.getUsername(), condition.getUsernameMatch()),
+				teamNameEq(condition.getTeamName()),
+				ageGoe(condition.getAgeGoe()),
+				ageLoe(condition.getAgeLoe())
+			);
+		return hints.apply(query, "search").fetch();
+	}
+
+	// 잘라서 응답할 때 요청마다 다른 행이 나오지 않도록 id 순으로 정렬한다.
+	@Override
+	public List<MemberTeamDto> search(MemberSearchCondition condition, int limit) {
+		if (jdbcSearch.handles("search")) {
+			flushForJdbc();
+			return jdbcSearch.search(condition, limit);
+		}
+		JPAQuery<MemberTeamDto> query = queryFactory
+			.select(Projections.fields(MemberTeamDto.class,
+				member.id.as("memberId"),
+				member.username,
+				member.age,
+				team.id.as("teamId"),
+				team.name.as("teamName")))
+			.from(member)
+			.leftJoin(member.team, team)
+			.where(
+				usernameEq(condition.getUsername(), condition.getUsernameMatch()),
 				teamNameEq(condition.getTeamName()),
 				ageGoe(condition.getAgeGoe()),
 				ageLoe(condition.getAgeLoe())
 			)
-			.fetch();
+			.orderBy(member.id.asc())
+			.limit(limit + 1L);
+		return hints.apply(query, "search").fetch();
 	}
 
 	@Override
 	public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
-		QueryResults<MemberTeamDto> results = queryFactory
+		if (jdbcSearch.handles("searchPageSimple")) {
+			flushForJdbc();
+			return jdbcSearch.searchPageSimple(condition, pageable);
+		}
+		JPAQuery<MemberTeamDto> query = queryFactory
 			.select(Projections.fields(MemberTeamDto.class,
 				member.id.as("memberId"),
 				member.username,
@@ -64,14 +137,14 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom{
 			.leftJoin(member.team, team)
 			.where(
 				// 동적 쿼리들
-				usernameEq(condition.getUsername()),
+				usernameEq(condition.getUsername(), condition.getUsernameMatch()),
 				teamNameEq(condition.getTeamName()),
 				ageGoe(condition.getAgeGoe()),
 				ageLoe(condition.getAgeLoe())
 			)
 			.offset(pageable.getOffset())
-			.limit(pageable.getPageSize())
-			.fetchResults();
+			.limit(pageable.getPageSize());
+		QueryResults<MemberTeamDto> results = hints.apply(query, "searchPageSimple").fetchResults();
 
 		List<MemberTeamDto> content = results.getResults();
 		long total = results.getTotal();
@@ -81,7 +154,7 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom{
 	@Override
 	public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition,
 		Pageable pageable) {
-		List<MemberTeamDto> content = queryFactory
+		JPAQuery<MemberTeamDto> contentQuery = queryFactory
 			.select(Projections.fields(MemberTeamDto.class,
 				member.id,
 				member.username,
@@ -90,22 +163,23 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom{
 				team.name))
 			.from(member)
 			.leftJoin(member.team, team)
-			.where(usernameEq(condition.getUsername()),
+			.where(usernameEq(condition.getUsername(), condition.getUsernameMatch()),
 				teamNameEq(condition.getTeamName()),
 				ageGoe(condition.getAgeGoe()),
 				ageLoe(condition.getAgeLoe()))
 			.offset(pageable.getOffset())
-			.limit(pageable.getPageSize())
-			.fetch();
+			.limit(pageable.getPageSize());
+		List<MemberTeamDto> content = hints.apply(contentQuery, "searchPageComplex").fetch();
 
 		JPAQuery<Member> countQuery = queryFactory
 			.select(member)
 			.from(member)
 			.leftJoin(member.team, team)
-			.where(usernameEq(condition.getUsername()),
+			.where(usernameEq(condition.getUsername(), condition.getUsernameMatch()),
 				teamNameEq(condition.getTeamName()),
 				ageGoe(condition.getAgeGoe()),
 				ageLoe(condition.getAgeLoe()));
+		hints.apply(countQuery, "searchPageComplex");
 
 		// Count 쿼리가 생략 가능한 경우 생략해서 처리
 		// 	1. 페이지 시작이면서 컨텐츠 사이즈가 페이즈 사이즈보다 작을 때
@@ -114,20 +188,242 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom{
 		return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchCount);
 	}
 
-	// Predicate보다 BooleanExpression을 사용하면 조건절 조립이 가능하다.
-	private BooleanExpression usernameEq(String username) {
-		return hasText(username) ? member.username.eq(username) : null;
+	// 페이지 사이에 행이 섞이지 않도록 id 순으로 정렬한다.
+	@Override
+	public Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+		JPAQuery<MemberTeamDto> query = queryFactory
+			.select(Projections.fields(MemberTeamDto.class,
+				member.id.as("memberId"),
+				member.username,
+				member.age,
+				team.id.as("teamId"),
+				team.name.as("teamName")))
+			.from(member)
+			.leftJoin(member.team, team)
+			.where(
+				usernameEq(condition.getUsername(), condition.getUsernameMatch()),
+				teamNameEq(condition.getTeamName()),
+				ageGoe(condition.getAgeGoe()),
+				ageLoe(condition.getAgeLoe())
+			)
+			.orderBy(member.id.asc())
+			.offset(pageable.getOffset())
+			.limit(pageable.getPageSize() + 1L);
+		List<MemberTeamDto> rows = hints.apply(query, "searchSlice").fetch();
+
+		boolean hasNext = rows.size() > pageable.getPageSize();
+		List<MemberTeamDto> content = hasNext ? new ArrayList<>(rows.subList(0, pageable.getPageSize())) : rows;
+		return new SliceImpl<>(content, pageable, hasNext);
+	}
+
+	// 조건이 없으면 DB 통계의 추정치를 쓰고, 있으면 상한(approximateCountCap) + 1건까지만 DB에서 센다.
+	// QueryDSL JPA는 from 절 서브쿼리를 지원하지 않아 조건 쿼리를 JPQL로 만든 뒤 HQL 서브쿼리로 감싼다.
+	// (select count(*) from (select ... limit cap + 1) r: 행을 가져오지 않고 cap + 1건을 찾으면 멈춘다)
+	@Override
+	public ApproximateCount approximateCount(MemberSearchCondition condition) {
+		MemberSearchCondition normalized = condition.normalized();
+		if (shapeOf(normalized) == 0) {
+			Number estimate = (Number)em.createNativeQuery(MEMBER_ROW_ESTIMATE).getSingleResult();
+			return new ApproximateCount(estimate.longValue(), ApproximateCount.Kind.ESTIMATE);
+		}
+
+		int cap = properties.getApproximateCountCap();
+		JPAQuery<Long> matching = queryFactory
+			.select(member.id.as("id"))
+			.from(member)
+			.leftJoin(member.team, team)
+			.where(
+				usernameEq(normalized.getUsername(), normalized.getUsernameMatch()),
+				teamNameEq(normalized.getTeamName()),
+				ageGoe(normalized.getAgeGoe()),
+				ageLoe(normalized.getAgeLoe())
+			);
+		JPQLSerializer serializer = new JPQLSerializer(JPAProvider.getTemplates(em), em);
+		serializer.serialize(matching.getMetadata(), false, null);
+		TypedQuery<Long> query = em.createQuery(
+			"select count(*) from (" + serializer + " limit " + (cap + 1) + ") r", Long.class);
+		JPAUtil.setConstants(query, serializer.getConstants(), matching.getMetadata().getParams());
+		long counted = hints.apply(query, "approximateCount").getSingleResult();
+		return counted > cap
+			? new ApproximateCount(cap, ApproximateCount.Kind.AT_LEAST)
+			: new ApproximateCount(counted, ApproximateCount.Kind.EXACT);
+	}
+
+	// 조건 모양(어떤 필드가 있는지)이 같은 것끼리 묶어 한 번의 쿼리로 조회하고,
+	// 각 행이 어느 조건에 해당하는지 다시 검사해서 조건별 결과로 나눠준다.
+	// 묶음 쿼리는 스트림으로 읽어 limit + 1건이 찬 조건에는 더 담지 않고, 묶음의 조건이 모두 차면 읽기를 멈춘다.
+	@Override
+	public List<List<MemberTeamDto>> searchBatch(List<MemberSearchCondition> conditions, int limit) {
+		int cap = limit + 1;
+		List<MemberSearchCondition> normalized = new ArrayList<>(conditions.size());
+		List<List<MemberTeamDto>> results = new ArrayList<>(conditions.size());
+		Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+		for (int i = 0; i < conditions.size(); i++) {
+			MemberSearchCondition condition = conditions.get(i).normalized();
+			normalized.add(condition);
+			results.add(new ArrayList<>());
+			groups.computeIfAbsent(shapeOf(condition), shape -> new ArrayList<>()).add(i);
+		}
+
+		for (Map.Entry<Integer, List<Integer>> group : groups.entrySet()) {
+			List<Integer> indexes = group.getValue();
+			for (int from = 0; from < indexes.size(); from += BATCH_CHUNK_SIZE) {
+				List<Integer> chunk = indexes.subList(from, Math.min(from + BATCH_CHUNK_SIZE, indexes.size()));
+				Set<MemberSearchCondition> distinct = new LinkedHashSet<>();
+				for (Integer index : chunk) {
+					distinct.add(normalized.get(index));
+				}
+
+				JPAQuery<MemberTeamDto> query = queryFactory
+					.select(Projections.fields(MemberTeamDto.class,
+						member.id.as("memberId"),
+						member.username,
+						member.age,
+						team.id.as("teamId"),
+						team.name.as("teamName")))
+					.from(member)
+					.leftJoin(member.team, team)
+					.where(batchPredicate(group.getKey(), distinct))
+					.orderBy(member.id.asc());
+				if (distinct.size() == 1) {
+					query.limit(cap);
+				}
+
+				int open = chunk.size();
+				try (Stream<MemberTeamDto> rows = hints.apply(query, "searchBatch").stream()) {
+					Iterator<MemberTeamDto> iterator = rows.iterator();
+					while (open > 0 && iterator.hasNext()) {
+						MemberTeamDto row = iterator.next();
+						for (Integer index : chunk) {
+							List<MemberTeamDto> result = results.get(index);
+							if (result.size() < cap && matches(normalized.get(index), row)) {
+								result.add(row);
+								if (result.size() == cap) {
+									open--;
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+		return results;
+	}
+
+	// 결과를 DTO 목록으로 모으지 않고 스트림으로 읽으면서 바로 열 배열에 채운다.
+	@Override
+	public MemberTeamColumns searchColumns(MemberSearchCondition condition) {
+		MemberTeamColumns.Builder columns = MemberTeamColumns.builder(COLUMNS_INITIAL_CAPACITY);
+		try (Stream<Tuple> rows = streamSearch(condition)) {
+			rows.forEach(row -> columns.add(
+				row.get(0, Long.class),
+				row.get(1, String.class),
+				row.get(2, Integer.class),
+				row.get(3, Long.class),
+				row.get(4, String.class)));
+		}
+		return columns.build();
+	}
+
+	// 호출한 쪽에서 스트림을 닫아야 한다. (트랜잭션 밖이면 닫을 때 EntityManager도 닫힌다)
+	@Override
+	public Stream<Tuple> streamSearch(MemberSearchCondition condition) {
+		JPAQuery<Tuple> query = queryFactory
+			.select(member.id, member.username, member.age, team.id, team.name)
+			.from(member)
+			.leftJoin(member.team, team)
+			.where(
+				usernameEq(condition.getUsername(), condition.getUsernameMatch()),
+				teamNameEq(condition.getTeamName()),
+				ageGoe(condition.getAgeGoe()),
+				ageLoe(condition.getAgeLoe())
+			)
+			.setHint("org.hibernate.readOnly", true);
+		return hints.apply(query, "streamSearch").stream();
+	}
+
+	@Override
+	public Page<Tuple> searchPageTuples(MemberSearchCondition condition, Pageable pageable) {
+		JPAQuery<Tuple> contentQuery = queryFactory
+			.select(member.id, member.username, member.age, team.id, team.name)
+			.from(member)
+			.leftJoin(member.team, team)
+			.where(
+				usernameEq(condition.getUsername(), condition.getUsernameMatch()),
+				teamNameEq(condition.getTeamName()),
+				ageGoe(condition.getAgeGoe()),
+				ageLoe(condition.getAgeLoe())
+			)
+			.offset(pageable.getOffset())
+			.limit(pageable.getPageSize());
+		List<Tuple> content = hints.apply(contentQuery, "searchPageTuples").fetch();
+
+		JPAQuery<Long> countQuery = queryFactory
+			.select(member.count())
+			.from(member)
+			.leftJoin(member.team, team)
+			.where(
+				usernameEq(condition.getUsername(), condition.getUsernameMatch()),
+				teamNameEq(condition.getTeamName()),
+				ageGoe(condition.getAgeGoe()),
+				ageLoe(condition.getAgeLoe())
+			);
+		hints.apply(countQuery, "searchPageTuples");
+
+		return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+	}
+
+	// JPQL 쿼리와 달리 SQL을 직접 실행하면 Hibernate가 자동 flush하지 않으므로 같은 트랜잭션의 변경을 먼저 내보낸다.
+	private void flushForJdbc() {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			em.flush();
+		}
+	}
+
+	// 대소문자 무시 회원명 조건은 IN 절로 묶을 수 없으므로 다른 모양(16)으로 나눈다.
+	private int shapeOf(MemberSearchCondition condition) {
+		return (condition.getUsername() == null ? 0 : condition.getUsernameMatch() == UsernameMatch.EXACT ? 1 : 16)
+			| (condition.getTeamName() != null ? 2 : 0)
+			| (condition.getAgeGoe() != null ? 4 : 0)
+			| (condition.getAgeLoe() != null ? 8 : 0);
 	}
 
-	private BooleanExpression teamNameEq(String teamName) {
-		return hasText(teamName) ? team.name.eq(teamName) : null;
+	private Predicate batchPredicate(int shape, Set<MemberSearchCondition> conditions) {
+		// 회원명 또는 팀명 하나만 다른 경우는 IN 절 하나로 충분하다.
+		if (shape == 1) {
+			return member.username.in(conditions.stream().map(MemberSearchCondition::getUsername).toList());
+		}
+		if (shape == 2) {
+			return team.name.in(conditions.stream().map(MemberSearchCondition::getTeamName).toList());
+		}
+		List<Predicate> predicates = new ArrayList<>(conditions.size());
+		for (MemberSearchCondition condition : conditions) {
+			predicates.add(ExpressionUtils.allOf(
+				usernameEq(condition.getUsername(), condition.getUsernameMatch()),
+				teamNameEq(condition.getTeamName()),
+				ageGoe(condition.getAgeGoe()),
+				ageLoe(condition.getAgeLoe())));
+		}
+		return ExpressionUtils.anyOf(predicates);
 	}
 
-	private BooleanExpression ageGoe(Integer ageGoe) {
-		return ageGoe != null ? member.age.goe(ageGoe) : null;
+	// batchPredicate와 같은 조건을 메모리에서 검사한다. (condition은 normalized 상태)
+	private boolean matches(MemberSearchCondition condition, MemberTeamDto row) {
+		return usernameMatches(condition, row.getUsername())
+			&& (condition.getTeamName() == null || Objects.equals(condition.getTeamName(), row.getTeamName()))
+			&& (condition.getAgeGoe() == null || row.getAge() >= condition.getAgeGoe())
+			&& (condition.getAgeLoe() == null || row.getAge() <= condition.getAgeLoe());
 	}
 
-	private BooleanExpression ageLoe(Integer ageLoe) {
-		return ageLoe != null ? member.age.loe(ageLoe) : null;
+	private boolean usernameMatches(MemberSearchCondition condition, String username) {
+		if (condition.getUsername() == null) {
+			return true;
+		}
+		return switch (condition.getUsernameMatch()) {
+			case EXACT -> condition.getUsername().equals(username);
+			case IGNORE_CASE -> condition.getUsername().equals(Member.normalizeUsername(username));
+			case PREFIX_IGNORE_CASE -> username != null
+				&& Member.normalizeUsername(username).startsWith(condition.getUsername());
+		};
 	}
 }
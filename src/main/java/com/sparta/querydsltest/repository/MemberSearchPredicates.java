@@ -0,0 +1,59 @@
+package com.sparta.querydsltest.repository;
+
+import static com.sparta.querydsltest.entity.QMember.*;
+import static com.sparta.querydsltest.entity.QTeam.*;
+import static org.springframework.util.StringUtils.*;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.StringPath;
+import com.sparta.querydsltest.dto.UsernameMatch;
+import com.sparta.querydsltest.entity.Member;
+
+/**
+ * MemberSearchCondition의 각 필드를 member left join team 쿼리의 조건으로 바꾼다.
+ * 값이 없으면 null을 돌려주므로 where(...)에 그대로 넘기면 그 조건은 빠진다.
+ * 회원 검색을 하는 리포지토리(JPA, 샤드)는 모두 이 조건을 쓴다. SQL 구현(MemberJdbcSearch)은 회원명 비교 규칙을
+ * UsernameFilter로 같이 쓰고, 나머지는 같은 컬럼에 같은 연산자를 쓴다.
+ */
+public final class MemberSearchPredicates {
+
+	private MemberSearchPredicates() {
+	}
+
+	// 회원명을 어느 컬럼(username, username_normalized)과 어떻게(전체, 앞부분) 비교할지와 비교할 값
+	public record UsernameFilter(String value, boolean normalized, boolean prefix) {
+
+		public static UsernameFilter of(String username, UsernameMatch match) {
+			if (!hasText(username)) {
+				return null;
+			}
+			return switch (match != null ? match : UsernameMatch.EXACT) {
+				case EXACT -> new UsernameFilter(username, false, false);
+				case IGNORE_CASE -> new UsernameFilter(Member.normalizeUsername(username), true, false);
+				case PREFIX_IGNORE_CASE -> new UsernameFilter(Member.normalizeUsername(username), true, true);
+			};
+		}
+	}
+
+	// Predicate보다 BooleanExpression을 사용하면 조건절 조립이 가능하다.
+	public static BooleanExpression usernameEq(String username, UsernameMatch match) {
+		UsernameFilter filter = UsernameFilter.of(username, match);
+		if (filter == null) {
+			return null;
+		}
+		StringPath column = filter.normalized() ? member.usernameNormalized : member.username;
+		return filter.prefix() ? column.startsWith(filter.value()) : column.eq(filter.value());
+	}
+
+	public static BooleanExpression teamNameEq(String teamName) {
+		return hasText(teamName) ? team.name.eq(teamName) : null;
+	}
+
+	public static BooleanExpression ageGoe(Integer ageGoe) {
+		return ageGoe != null ? member.age.goe(ageGoe) : null;
+	}
+
+	public static BooleanExpression ageLoe(Integer ageLoe) {
+		return ageLoe != null ? member.age.loe(ageLoe) : null;
+	}
+}
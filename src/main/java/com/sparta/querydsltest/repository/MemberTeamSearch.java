@@ -0,0 +1,21 @@
+package com.sparta.querydsltest.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.sparta.querydsltest.dto.MemberSearchCondition;
+import com.sparta.querydsltest.dto.MemberTeamDto;
+
+/**
+ * member left join team 검색 결과를 MemberTeamDto로 돌려주는 조회.
+ * JPA(QueryDSL) 구현은 MemberRepositoryImpl, SQL 구현은 MemberJdbcSearch이고
+ * search.query.native-methods로 메서드마다 어느 구현을 쓸지 고른다.
+ */
+public interface MemberTeamSearch {
+	List<MemberTeamDto> search(MemberSearchCondition condition);
+	// id 순으로 limit + 1건까지 읽어서 호출한 쪽이 limit을 넘는지 알 수 있게 한다.
+	List<MemberTeamDto> search(MemberSearchCondition condition, int limit);
+	Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable);
+}
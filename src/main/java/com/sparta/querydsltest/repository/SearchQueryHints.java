@@ -0,0 +1,32 @@
+package com.sparta.querydsltest.repository;
+
+import org.springframework.stereotype.Component;
+
+import com.querydsl.jpa.impl.JPAQuery;
+
+import jakarta.persistence.TypedQuery;
+
+import lombok.RequiredArgsConstructor;
+
+// 리포지토리 쿼리에 메서드별 타임아웃과 fetch size 힌트를 건다. (fetchResults 등의 count 쿼리에도 같이 적용된다)
+@Component
+@RequiredArgsConstructor
+public class SearchQueryHints {
+
+	static final String TIMEOUT_HINT = "jakarta.persistence.query.timeout";
+	static final String FETCH_SIZE_HINT = "org.hibernate.fetchSize";
+
+	private final SearchQueryProperties properties;
+
+	public <T> JPAQuery<T> apply(JPAQuery<T> query, String method) {
+		return query
+			.setHint(TIMEOUT_HINT, (int)properties.timeoutOf(method).toMillis())
+			.setHint(FETCH_SIZE_HINT, properties.fetchSizeOf(method));
+	}
+
+	public <T> TypedQuery<T> apply(TypedQuery<T> query, String method) {
+		return query
+			.setHint(TIMEOUT_HINT, (int)properties.timeoutOf(method).toMillis())
+			.setHint(FETCH_SIZE_HINT, properties.fetchSizeOf(method));
+	}
+}
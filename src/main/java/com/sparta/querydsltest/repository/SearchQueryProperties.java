@@ -0,0 +1,44 @@
+package com.sparta.querydsltest.repository;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "search.query")
+public class SearchQueryProperties {
+
+	// JDBC 쿼리 타임아웃은 초 단위라서 초 단위로 올림된다. (1초 미만은 1초)
+	private Duration timeout = Duration.ofSeconds(5);
+	private int fetchSize = 100;
+	// 리포지토리 메서드 이름별 값. 없으면 위 기본값을 쓴다.
+	private Map<String, Duration> timeouts = new HashMap<>(Map.of(
+		"searchBatch", Duration.ofSeconds(10),
+		"streamSearch", Duration.ofSeconds(60)));
+	private Map<String, Integer> fetchSizes = new HashMap<>(Map.of("streamSearch", 1_000));
+	// approximateCount가 조건이 있을 때 세는 최대 건수
+	private int approximateCountCap = 10_000;
+	// findByIds 등 여러 id 조회 시 IN 절 하나에 넣는 최대 id 수 (2의 거듭제곱)
+	private int idChunkSize = 512;
+	// 여러 id 조회에서 IN 절 묶음을 동시에 조회할 최대 수. 1이면 순서대로 조회한다.
+	private int idChunkParallelism = 1;
+	// JPA 대신 MemberJdbcSearch(SQL 직접 실행)로 처리할 MemberTeamSearch 메서드 (search, searchPageSimple)
+	// search는 /v1의 건수 제한 조회(search(condition, limit))도 포함한다.
+	private Set<String> nativeMethods = new HashSet<>();
+
+	public Duration timeoutOf(String method) {
+		return timeouts.getOrDefault(method, timeout);
+	}
+
+	public int fetchSizeOf(String method) {
+		return fetchSizes.getOrDefault(method, fetchSize);
+	}
+}
@@ -0,0 +1,118 @@
+package com.sparta.querydsltest.search;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * 검색 동시 실행 수를 지연시간에 맞춰 조절하는 limiter. (gradient 방식 + 오류 시 곱셈 감소)
+ *
+ * - baseline: 부하가 없을 때의 지연시간 추정값. 더 빠른 응답이 오면 바로 내려가고, 느린 응답에는 천천히 올라간다.
+ * - gradient = baseline * tolerance / 측정 지연시간 (0.5 ~ 1.0): 지연이 늘어나면 한도를 비례해서 줄인다.
+ * - 한도를 절반 이상 쓰고 있을 때만 sqrt(limit) 만큼 여유를 더해 늘려본다.
+ *
+ * 한도를 넘으면 대기열에 넣지 않고 바로 SearchRejectedException을 던진다. (503 + Retry-After)
+ * 모든 상태는 Atomic 변수의 CAS로만 갱신한다.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+	private final SearchLimiterProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final LongSupplier clock;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	// double 값을 비트로 저장한다.
+	private final AtomicLong limit;
+	private final AtomicLong baselineNanos = new AtomicLong(Double.doubleToRawLongBits(0));
+
+	@Autowired
+	public AdaptiveConcurrencyLimiter(SearchLimiterProperties properties, MeterRegistry meterRegistry) {
+		this(properties, meterRegistry, System::nanoTime);
+	}
+
+	AdaptiveConcurrencyLimiter(SearchLimiterProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		this.clock = clock;
+		this.limit = new AtomicLong(Double.doubleToRawLongBits(properties.getInitialLimit()));
+		meterRegistry.gauge("member.search.limit", Tags.empty(), this, AdaptiveConcurrencyLimiter::getLimit);
+		meterRegistry.gauge("member.search.limit.inflight", Tags.empty(), inFlight);
+	}
+
+	public <T> T execute(String endpoint, Supplier<T> search) {
+		if (!properties.isEnabled()) {
+			return search.get();
+		}
+		int inFlightAtStart = acquire(endpoint);
+		long start = clock.getAsLong();
+		try {
+			T result = search.get();
+			onSample(clock.getAsLong() - start, inFlightAtStart);
+			return result;
+		} catch (TransientDataAccessException e) {
+			onDrop();
+			throw e;
+		} finally {
+			inFlight.decrementAndGet();
+		}
+	}
+
+	public double getLimit() {
+		return Double.longBitsToDouble(limit.get());
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	private int acquire(String endpoint) {
+		int allowed = Math.max(1, (int)(getLimit() * properties.shareOf(endpoint)));
+		while (true) {
+			int current = inFlight.get();
+			if (current >= allowed) {
+				meterRegistry.counter("member.search.rejected", "endpoint", endpoint).increment();
+				throw new SearchRejectedException(endpoint, Math.max(1, properties.getRetryAfter().toSeconds()));
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return current + 1;
+			}
+		}
+	}
+
+	private void onSample(long rttNanos, int inFlightAtStart) {
+		double rtt = Math.max(1, rttNanos);
+		double baseline = update(baselineNanos, current -> current == 0 || rtt < current
+			? rtt
+			: current + (rtt - current) * 0.01);
+		double gradient = Math.max(0.5, Math.min(1.0, baseline * properties.getTolerance() / rtt));
+
+		update(limit, current -> {
+			double queue = inFlightAtStart * 2 >= current ? Math.sqrt(current) : 0;
+			double target = current * gradient + queue;
+			return clamp(current * (1 - properties.getSmoothing()) + target * properties.getSmoothing());
+		});
+	}
+
+	private void onDrop() {
+		update(limit, current -> clamp(current * properties.getBackoffRatio()));
+	}
+
+	private double clamp(double value) {
+		return Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), value));
+	}
+
+	private static double update(AtomicLong bits, DoubleUnaryOperator operator) {
+		return Double.longBitsToDouble(bits.updateAndGet(
+			current -> Double.doubleToRawLongBits(operator.applyAsDouble(Double.longBitsToDouble(current)))));
+	}
+}
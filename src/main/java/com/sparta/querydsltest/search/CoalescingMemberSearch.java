@@ -0,0 +1,139 @@
+package com.sparta.querydsltest.search;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import com.querydsl.core.Tuple;
+import com.sparta.querydsltest.dto.ApproximateCount;
+import com.sparta.querydsltest.dto.MemberSearchCondition;
+import com.sparta.querydsltest.dto.MemberTeamColumns;
+import com.sparta.querydsltest.dto.MemberTeamDto;
+import com.sparta.querydsltest.repository.MemberRepository;
+import com.sparta.querydsltest.repository.MemberRepositoryCustom;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * 동시에 들어온 같은 (조건, 페이지) 검색을 한 번의 DB 조회로 합친다. (single-flight)
+ * 먼저 온 요청이 쿼리를 실행하고, 실행 중에 들어온 같은 요청은 그 결과를 기다려 함께 받는다.
+ * 실행이 끝나면 바로 키를 지우므로 결과를 캐시하지는 않는다.
+ */
+@Component
+public class CoalescingMemberSearch implements MemberRepositoryCustom {
+
+	private final MemberRepository memberRepository;
+	private final MeterRegistry meterRegistry;
+	private final ConcurrentHashMap<SearchKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+	public CoalescingMemberSearch(MemberRepository memberRepository, MeterRegistry meterRegistry) {
+		this.memberRepository = memberRepository;
+		this.meterRegistry = meterRegistry;
+		meterRegistry.gaugeMapSize("member.search.inflight", Tags.empty(), inFlight);
+	}
+
+	@Override
+	public List<MemberTeamDto> search(MemberSearchCondition condition) {
+		return execute(new SearchKey("search", condition.normalized(), Pageable.unpaged()),
+			() -> memberRepository.search(condition));
+	}
+
+	// 건수 제한은 첫 페이지 크기로 키에 넣어 제한이 다른 요청끼리는 합치지 않는다.
+	@Override
+	public List<MemberTeamDto> search(MemberSearchCondition condition, int limit) {
+		return execute(new SearchKey("search", condition.normalized(), Pageable.ofSize(limit)),
+			() -> memberRepository.search(condition, limit));
+	}
+
+	@Override
+	public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+		return execute(new SearchKey("searchPageSimple", condition.normalized(), pageable),
+			() -> memberRepository.searchPageSimple(condition, pageable));
+	}
+
+	@Override
+	public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
+		return execute(new SearchKey("searchPageComplex", condition.normalized(), pageable),
+			() -> memberRepository.searchPageComplex(condition, pageable));
+	}
+
+	@Override
+	public List<List<MemberTeamDto>> searchBatch(List<MemberSearchCondition> conditions, int limit) {
+		return memberRepository.searchBatch(conditions, limit);
+	}
+
+	@Override
+	public Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+		return execute(new SearchKey("searchSlice", condition.normalized(), pageable),
+			() -> memberRepository.searchSlice(condition, pageable));
+	}
+
+	@Override
+	public ApproximateCount approximateCount(MemberSearchCondition condition) {
+		return execute(new SearchKey("approximateCount", condition.normalized(), Pageable.unpaged()),
+			() -> memberRepository.approximateCount(condition));
+	}
+
+	// 내부 배치용 대량 조회라서 합치지 않는다.
+	@Override
+	public MemberTeamColumns searchColumns(MemberSearchCondition condition) {
+		return memberRepository.searchColumns(condition);
+	}
+
+	// 스트림은 호출한 쪽이 읽으면서 소비하므로 여러 요청이 나눠 가질 수 없다.
+	@Override
+	public Stream<Tuple> streamSearch(MemberSearchCondition condition) {
+		return memberRepository.streamSearch(condition);
+	}
+
+	@Override
+	public Page<Tuple> searchPageTuples(MemberSearchCondition condition, Pageable pageable) {
+		return execute(new SearchKey("searchPageTuples", condition.normalized(), pageable),
+			() -> memberRepository.searchPageTuples(condition, pageable));
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T execute(SearchKey key, Supplier<T> query) {
+		CompletableFuture<Object> flight = new CompletableFuture<>();
+		CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+		if (existing != null) {
+			meterRegistry.counter("member.search.coalesced", "method", key.method()).increment();
+			return (T)await(existing);
+		}
+
+		meterRegistry.counter("member.search.executions", "method", key.method()).increment();
+		try {
+			T result = query.get();
+			flight.complete(result);
+			return result;
+		} catch (RuntimeException | Error e) {
+			flight.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, flight);
+		}
+	}
+
+	private Object await(CompletableFuture<Object> flight) {
+		try {
+			return flight.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	private record SearchKey(String method, MemberSearchCondition condition, Pageable pageable) {
+	}
+}
@@ -0,0 +1,17 @@
+package com.sparta.querydsltest.search;
+
+import java.io.IOException;
+
+import lombok.Getter;
+
+// 결과를 스트리밍하는 중 클라이언트 연결이 끊겨 조회를 중단했다.
+@Getter
+public class SearchCancelledException extends RuntimeException {
+
+	private final String endpoint;
+
+	public SearchCancelledException(String endpoint, IOException cause) {
+		super("client disconnected during search: " + endpoint, cause);
+		this.endpoint = endpoint;
+	}
+}
@@ -0,0 +1,34 @@
+package com.sparta.querydsltest.search;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "search.limiter")
+public class SearchLimiterProperties {
+
+	private boolean enabled = true;
+	private int initialLimit = 20;
+	private int minLimit = 2;
+	private int maxLimit = 200;
+	// 지연시간이 기준값의 tolerance 배를 넘으면 한도를 줄이기 시작한다.
+	private double tolerance = 2.0;
+	private double smoothing = 0.2;
+	// DB 쪽 일시 오류(타임아웃 등)가 나면 한도에 곱하는 값
+	private double backoffRatio = 0.9;
+	private Duration retryAfter = Duration.ofSeconds(1);
+	// 엔드포인트별로 쓸 수 있는 한도 비율. 비율이 낮을수록 과부하 시 먼저 거절된다.
+	private Map<String, Double> shares = new HashMap<>(Map.of("v1", 0.75, "batch", 0.75, "analytics", 0.75,
+		"v2", 0.9, "v3", 1.0, "v4", 0.9));
+
+	public double shareOf(String endpoint) {
+		return shares.getOrDefault(endpoint, 1.0);
+	}
+}
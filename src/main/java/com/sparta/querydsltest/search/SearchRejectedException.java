@@ -0,0 +1,16 @@
+package com.sparta.querydsltest.search;
+
+import lombok.Getter;
+
+@Getter
+public class SearchRejectedException extends RuntimeException {
+
+	private final String endpoint;
+	private final long retryAfterSeconds;
+
+	public SearchRejectedException(String endpoint, long retryAfterSeconds) {
+		super("search concurrency limit exceeded: " + endpoint);
+		this.endpoint = endpoint;
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+}
@@ -0,0 +1,148 @@
+package com.sparta.querydsltest.seed;
+
+import static com.sparta.querydsltest.entity.QMember.*;
+import static com.sparta.querydsltest.entity.QTeam.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.sparta.querydsltest.entity.Member;
+import com.sparta.querydsltest.entity.Team;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 샘플 팀/회원 데이터를 백그라운드에서 넣는다.
+ *
+ * 애플리케이션이 뜬 뒤 별도 스레드에서 batchSize 건씩 커밋하고, 끝날 때까지는
+ * SeedHealthIndicator가 OUT_OF_SERVICE를 내서 readiness 그룹이 트래픽을 받지 않게 한다.
+ * 회원 i는 "member{i+1}"이고 i % teams 번째 팀에 속한다. 이미 들어간 회원 수부터 이어서 넣으므로
+ * 중간에 내려가도 다시 띄우면 남은 부분만 넣는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MemberSeeder {
+
+	public enum State {
+		PENDING, RUNNING, COMPLETED, FAILED, DISABLED
+	}
+
+	private final SeedProperties properties;
+	private final TransactionTemplate tx;
+	private final EntityManager em;
+	private final JPAQueryFactory queryFactory;
+
+	private final TaskExecutor executor = new SimpleAsyncTaskExecutor("member-seed-");
+	private final AtomicLong seeded = new AtomicLong();
+	private volatile State state = State.PENDING;
+
+	public State getState() {
+		return state;
+	}
+
+	public long getSeeded() {
+		return seeded.get();
+	}
+
+	public long getTotal() {
+		return properties.getMembers();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!properties.isEnabled()) {
+			state = State.DISABLED;
+			return;
+		}
+		executor.execute(() -> {
+			try {
+				seed();
+			} catch (RuntimeException e) {
+				state = State.FAILED;
+				log.error("member seeding failed after {} members", seeded.get(), e);
+			}
+		});
+	}
+
+	void seed() {
+		state = State.RUNNING;
+		long start = System.nanoTime();
+		List<Long> teamIds = tx.execute(status -> ensureTeams());
+		long total = properties.getMembers();
+		long resumeFrom = queryFactory
+			.select(member.count())
+			.from(member)
+			.where(member.team.id.in(teamIds))
+			.fetchOne();
+		seeded.set(resumeFrom);
+		if (resumeFrom > 0) {
+			log.info("resuming member seeding at {}/{}", resumeFrom, total);
+		}
+
+		int batchSize = properties.getBatchSize();
+		long logEvery = Math.max(total / 10, batchSize);
+		long nextLog = resumeFrom + logEvery;
+		while (seeded.get() < total) {
+			long from = seeded.get();
+			long to = Math.min(from + batchSize, total);
+			tx.executeWithoutResult(status -> {
+				for (long i = from; i < to; i++) {
+					Team memberTeam = em.getReference(Team.class, teamIds.get((int)(i % teamIds.size())));
+					em.persist(new Member("member" + (i + 1), (int)(i % 100) + 1, memberTeam));
+				}
+			});
+			seeded.set(to);
+			if (to >= nextLog) {
+				log.info("seeded {}/{} members", to, total);
+				nextLog += logEvery;
+			}
+		}
+		state = State.COMPLETED;
+		log.info("member seeding completed: {} teams, {} members ({} new) in {} ms", teamIds.size(), total,
+			total - Math.min(resumeFrom, total), (System.nanoTime() - start) / 1_000_000);
+	}
+
+	// 이름으로 기존 팀을 찾고 없는 팀만 만든다. 인덱스 순서대로 팀 id를 돌려준다.
+	private List<Long> ensureTeams() {
+		List<String> names = new ArrayList<>(properties.getTeams());
+		for (int i = 0; i < properties.getTeams(); i++) {
+			names.add(teamName(i));
+		}
+		Map<String, Long> existing = new HashMap<>();
+		for (Tuple row : queryFactory.select(team.name, team.id).from(team).where(team.name.in(names)).fetch()) {
+			existing.putIfAbsent(row.get(team.name), row.get(team.id));
+		}
+
+		List<Long> teamIds = new ArrayList<>(names.size());
+		for (String name : names) {
+			Long teamId = existing.get(name);
+			if (teamId == null) {
+				Team newTeam = new Team(name);
+				em.persist(newTeam);
+				teamId = newTeam.getId();
+			}
+			teamIds.add(teamId);
+		}
+		return teamIds;
+	}
+
+	// teamA ~ teamZ, 그 이후는 team26, team27, ...
+	static String teamName(int index) {
+		return index < 26 ? "team" + (char)('A' + index) : "team" + index;
+	}
+}
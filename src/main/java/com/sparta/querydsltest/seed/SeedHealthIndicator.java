@@ -0,0 +1,30 @@
+package com.sparta.querydsltest.seed;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+// 샘플 데이터 진행 상황. readiness 그룹에 포함되어 있어 생성이 끝나기 전에는 트래픽을 받지 않는다.
+@Component
+@RequiredArgsConstructor
+public class SeedHealthIndicator implements HealthIndicator {
+
+	private final MemberSeeder seeder;
+
+	@Override
+	public Health health() {
+		MemberSeeder.State state = seeder.getState();
+		Health.Builder builder = switch (state) {
+			case COMPLETED, DISABLED -> Health.up();
+			case PENDING, RUNNING -> Health.outOfService();
+			case FAILED -> Health.down();
+		};
+		return builder
+			.withDetail("state", state)
+			.withDetail("seeded", seeder.getSeeded())
+			.withDetail("total", seeder.getTotal())
+			.build();
+	}
+}
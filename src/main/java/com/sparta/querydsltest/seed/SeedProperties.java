@@ -0,0 +1,19 @@
+package com.sparta.querydsltest.seed;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "seed")
+public class SeedProperties {
+
+	// 시작 후 샘플 팀/회원 데이터를 넣을지 여부
+	private boolean enabled = false;
+	private int teams = 2;
+	private long members = 100;
+	// 트랜잭션 하나(청크)에서 넣는 회원 수
+	private int batchSize = 1_000;
+}
@@ -0,0 +1,32 @@
+package com.sparta.querydsltest.shard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shard")
+public class ShardProperties {
+
+	// 켜면 팀 이름으로 회원/팀을 nodes 중 하나에 나눠 저장하고 조회는 전 샤드에 흩어 보낸 뒤 합친다.
+	private boolean enabled = false;
+	// 샤드 DB 스키마 생성 방식 (none, create, update, validate)
+	private String ddlAuto = "none";
+	// 샤드마다 앞에서부터 offset + size 건을 읽어 합치므로 이보다 깊은 페이지는 거절한다.
+	private int maxPageWindow = 10_000;
+	private List<Node> nodes = new ArrayList<>();
+
+	@Getter
+	@Setter
+	public static class Node {
+		private String url;
+		private String username = "sa";
+		private String password = "";
+		private int maximumPoolSize = 10;
+	}
+}
@@ -0,0 +1,132 @@
+package com.sparta.querydsltest.shard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.sparta.querydsltest.cache.MemberSnapshotProperties;
+import com.sparta.querydsltest.entity.Member;
+import com.sparta.querydsltest.export.ExportProperties;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * shard.nodes 마다 DataSource, EntityManagerFactory, 트랜잭션을 따로 만든다.
+ *
+ * member/team id는 샤드마다 시퀀스를 ID_BLOCK 단위 구간에서 시작시켜 전 샤드에서 겹치지 않게 한다.
+ * (샤드 i의 id는 i * ID_BLOCK 보다 크다) 그래서 샤드 결과를 id 순으로 합칠 수 있다.
+ *
+ * 스냅샷 캐시(member.snapshot)와 내보내기(member.export)는 기본 DataSource 하나만 읽으므로 샤딩과 함께 켜면 시작하지 않는다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "shard", name = "enabled", havingValue = "true")
+public class ShardRegistry implements DisposableBean {
+
+	static final long ID_BLOCK = 1L << 40;
+	private static final List<String> SEQUENCES = List.of("member_seq", "team_seq");
+
+	public record Shard(int index, HikariDataSource dataSource, EntityManagerFactory emf, EntityManager em,
+						JPAQueryFactory queryFactory, TransactionTemplate tx) {
+	}
+
+	private final List<Shard> shards = new ArrayList<>();
+
+	public ShardRegistry(ShardProperties properties, EntityManagerFactoryBuilder builder, JpaProperties jpaProperties,
+		HibernateProperties hibernateProperties, ConfigurableListableBeanFactory beanFactory,
+		MemberSnapshotProperties snapshotProperties, ExportProperties exportProperties) {
+		if (properties.getNodes().isEmpty()) {
+			throw new IllegalStateException("shard.enabled is true but no shard.nodes are configured");
+		}
+		if (snapshotProperties.isEnabled() || exportProperties.isEnabled()) {
+			throw new IllegalStateException(
+				"member.snapshot.enabled and member.export.enabled read only the primary DataSource and cannot be used with shard.enabled");
+		}
+		Map<String, Object> jpa = hibernateProperties.determineHibernateProperties(jpaProperties.getProperties(),
+			new HibernateSettings().ddlAuto(properties::getDdlAuto));
+		// 엔티티 리스너(DataVersionListener 등)를 스프링 빈으로 만든다. (기본 EntityManagerFactory와 같게)
+		jpa.put(AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(beanFactory));
+
+		for (int i = 0; i < properties.getNodes().size(); i++) {
+			ShardProperties.Node node = properties.getNodes().get(i);
+			HikariDataSource dataSource = DataSourceBuilder.create()
+				.type(HikariDataSource.class)
+				.url(node.getUrl())
+				.username(node.getUsername())
+				.password(node.getPassword())
+				.build();
+			dataSource.setPoolName("shard-" + i);
+			dataSource.setMaximumPoolSize(node.getMaximumPoolSize());
+
+			LocalContainerEntityManagerFactoryBean factory = builder
+				.dataSource(dataSource)
+				.packages(Member.class)
+				.persistenceUnit("shard-" + i)
+				.properties(jpa)
+				.build();
+			factory.afterPropertiesSet();
+			EntityManagerFactory emf = factory.getObject();
+			EntityManager em = SharedEntityManagerCreator.createSharedEntityManager(emf);
+			Shard shard = new Shard(i, dataSource, emf, em, new JPAQueryFactory(em),
+				new TransactionTemplate(new JpaTransactionManager(emf)));
+			reserveIdBlock(shard);
+			shards.add(shard);
+		}
+	}
+
+	public List<Shard> shards() {
+		return shards;
+	}
+
+	public Shard get(int index) {
+		return shards.get(index);
+	}
+
+	public int size() {
+		return shards.size();
+	}
+
+	@Override
+	public void destroy() {
+		for (Shard shard : shards) {
+			shard.emf().close();
+			shard.dataSource().close();
+		}
+	}
+
+	// 시퀀스가 아직 이 샤드 구간 밖이면 구간 시작으로 옮긴다. (allocationSize 50의 pooled 방식이므로 +50)
+	private void reserveIdBlock(Shard shard) {
+		long base = shard.index() * ID_BLOCK;
+		if (base == 0) {
+			return;
+		}
+		shard.tx().executeWithoutResult(status -> {
+			for (String sequence : SEQUENCES) {
+				Number next = (Number)shard.em().createNativeQuery("select next value for " + sequence)
+					.getSingleResult();
+				if (next.longValue() < base) {
+					shard.em().createNativeQuery("alter sequence " + sequence + " restart with " + (base + 50))
+						.executeUpdate();
+				}
+			}
+		});
+	}
+}
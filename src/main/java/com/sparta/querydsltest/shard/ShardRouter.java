@@ -0,0 +1,24 @@
+package com.sparta.querydsltest.shard;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+// 팀 이름으로 샤드를 고른다. 팀이 없는 회원은 0번 샤드에 둔다.
+// String.hashCode는 JVM과 관계없이 같은 값이므로 노드가 여러 대여도 같은 샤드로 간다.
+@Component
+@ConditionalOnProperty(prefix = "shard", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ShardRouter {
+
+	private final ShardRegistry registry;
+
+	public ShardRegistry.Shard shardFor(String teamName) {
+		return registry.get(indexFor(teamName, registry.size()));
+	}
+
+	static int indexFor(String teamName, int shardCount) {
+		return teamName == null ? 0 : Math.floorMod(teamName.hashCode(), shardCount);
+	}
+}
@@ -0,0 +1,316 @@
+package com.sparta.querydsltest.shard;
+
+import static com.sparta.querydsltest.entity.QMember.*;
+import static com.sparta.querydsltest.entity.QTeam.*;
+import static com.sparta.querydsltest.repository.MemberSearchPredicates.*;
+import static org.springframework.util.StringUtils.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.sparta.querydsltest.cache.MemberLookupCache;
+import com.sparta.querydsltest.dto.ApproximateCount;
+import com.sparta.querydsltest.dto.MemberAgeRankDto;
+import com.sparta.querydsltest.dto.MemberSearchCondition;
+import com.sparta.querydsltest.dto.MemberTeamDto;
+import com.sparta.querydsltest.repository.MemberAnalyticsRepository;
+import com.sparta.querydsltest.repository.MemberBulkLookup;
+import com.sparta.querydsltest.repository.MemberJdbcSearch;
+import com.sparta.querydsltest.repository.MemberRepositoryImpl;
+import com.sparta.querydsltest.repository.SearchQueryHints;
+import com.sparta.querydsltest.repository.SearchQueryProperties;
+import com.sparta.querydsltest.web.RequestLimitExceededException;
+
+/**
+ * 샤드 전체에 같은 검색을 병렬로 보내고(scatter) 결과를 member id 순으로 합친다(gather).
+ *
+ * 팀명 조건이 있으면 그 팀이 있는 샤드 하나만 조회한다.
+ * 페이지 조회는 샤드마다 앞에서부터 offset + size 건을 id 순으로 가져와 합친 뒤 잘라내므로
+ * 뒤쪽 페이지일수록 샤드당 읽는 행이 늘어난다. 그래서 offset + size가 shard.max-page-window를 넘으면 거절한다.
+ * 전체 건수는 샤드별 count의 합이다.
+ *
+ * slice, batch, id 조회, 나이 통계는 샤드마다 만든 MemberRepositoryImpl, MemberBulkLookup, MemberAnalyticsRepository로
+ * 같은 쿼리를 보내고 합친다. 팀은 한 샤드에만 있으므로 팀 단위 순위와 평균은 샤드 안에서 계산해도 같다.
+ * 샤드용 인스턴스는 스프링 빈이 아니므로 JPA 예외는 이 클래스의 @Repository 예외 변환으로 바꾼다.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "shard", name = "enabled", havingValue = "true")
+public class ShardedMemberSearch implements DisposableBean {
+
+	private static final Comparator<MemberTeamDto> BY_MEMBER_ID = Comparator.comparing(MemberTeamDto::getMemberId);
+	// MemberAnalyticsRepository.rankByAgeInTeam의 정렬 순서
+	private static final Comparator<MemberAgeRankDto> BY_TEAM_AND_AGE = Comparator
+		.comparing(MemberAgeRankDto::getTeamId)
+		.thenComparing(MemberAgeRankDto::getAge, Comparator.reverseOrder())
+		.thenComparing(MemberAgeRankDto::getMemberId);
+
+	private final ShardRegistry registry;
+	private final ShardRouter router;
+	private final SearchQueryHints hints;
+	private final ShardProperties properties;
+	private final ExecutorService executor;
+	// 샤드 index 순서
+	private final List<MemberRepositoryImpl> repositories = new ArrayList<>();
+	private final List<MemberBulkLookup> lookups = new ArrayList<>();
+	private final List<MemberAnalyticsRepository> analytics = new ArrayList<>();
+
+	public ShardedMemberSearch(ShardRegistry registry, ShardRouter router, SearchQueryHints hints,
+		ShardProperties properties, SearchQueryProperties queryProperties, ObjectProvider<MemberLookupCache> lookupCache) {
+		this.registry = registry;
+		this.router = router;
+		this.hints = hints;
+		this.properties = properties;
+		this.executor = Executors.newFixedThreadPool(registry.size());
+		for (ShardRegistry.Shard shard : registry.shards()) {
+			repositories.add(new MemberRepositoryImpl(shard.em(), hints, queryProperties,
+				new MemberJdbcSearch(shard.dataSource(), shard.emf(), queryProperties)));
+			lookups.add(new MemberBulkLookup(lookupCache, shard.queryFactory(), shard.emf(), hints, queryProperties));
+			analytics.add(new MemberAnalyticsRepository(shard.em(), shard.queryFactory(), hints));
+		}
+	}
+
+	public List<MemberTeamDto> search(MemberSearchCondition condition) {
+		List<MemberTeamDto> merged = new ArrayList<>();
+		for (List<MemberTeamDto> rows : scatter(condition.getTeamName(), shard -> hints.apply(contentQuery(shard, condition), "search")
+			.orderBy(member.id.asc())
+			.fetch())) {
+			merged.addAll(rows);
+		}
+		merged.sort(BY_MEMBER_ID);
+		return merged;
+	}
+
+	// 샤드마다 id 순으로 limit + 1건까지 읽어 합친다. 호출한 쪽이 limit을 넘는지 알 수 있다.
+	public List<MemberTeamDto> search(MemberSearchCondition condition, int limit) {
+		List<MemberTeamDto> merged = new ArrayList<>();
+		for (List<MemberTeamDto> rows : scatter(condition.getTeamName(), shard -> hints.apply(contentQuery(shard, condition), "search")
+			.orderBy(member.id.asc())
+			.limit(limit + 1L)
+			.fetch())) {
+			merged.addAll(rows);
+		}
+		merged.sort(BY_MEMBER_ID);
+		return merged.size() > limit + 1 ? new ArrayList<>(merged.subList(0, limit + 1)) : merged;
+	}
+
+	public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+		long window = window(pageable);
+		List<MemberTeamDto> merged = new ArrayList<>();
+		for (List<MemberTeamDto> rows : scatter(condition.getTeamName(), shard -> hints.apply(contentQuery(shard, condition), "searchPage")
+			.orderBy(member.id.asc())
+			.limit(window)
+			.fetch())) {
+			merged.addAll(rows);
+		}
+		merged.sort(BY_MEMBER_ID);
+
+		return PageableExecutionUtils.getPage(cut(merged, pageable), pageable, () -> count(condition));
+	}
+
+	public long count(MemberSearchCondition condition) {
+		long total = 0;
+		for (Long count : scatter(condition.getTeamName(), shard -> {
+			JPAQuery<Long> query = shard.queryFactory()
+				.select(member.count())
+				.from(member)
+				.leftJoin(member.team, team)
+				.where(usernameEq(condition.getUsername(), condition.getUsernameMatch()),
+					teamNameEq(condition.getTeamName()),
+					ageGoe(condition.getAgeGoe()),
+					ageLoe(condition.getAgeLoe()));
+			return hints.apply(query, "searchPage").fetchOne();
+		})) {
+			total += count != null ? count : 0;
+		}
+		return total;
+	}
+
+	// 샤드마다 앞에서부터 offset + size + 1건을 읽어 합친다. 한 샤드라도 더 있으면 다음 페이지가 있다.
+	public Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+		Pageable head = PageRequest.of(0, window(pageable));
+		List<MemberTeamDto> merged = new ArrayList<>();
+		boolean hasNext = false;
+		for (Slice<MemberTeamDto> slice : scatter(condition.getTeamName(),
+			shard -> repositories.get(shard.index()).searchSlice(condition, head))) {
+			merged.addAll(slice.getContent());
+			hasNext |= slice.hasNext();
+		}
+		merged.sort(BY_MEMBER_ID);
+		return new SliceImpl<>(cut(merged, pageable), pageable, hasNext || merged.size() > head.getPageSize());
+	}
+
+	// 샤드별 건수의 합. 한 샤드라도 추정치면 추정치, 상한에서 멈췄으면 "최소" 건수다.
+	public ApproximateCount approximateCount(MemberSearchCondition condition) {
+		long total = 0;
+		ApproximateCount.Kind kind = ApproximateCount.Kind.EXACT;
+		for (ApproximateCount count : scatter(condition.getTeamName(),
+			shard -> repositories.get(shard.index()).approximateCount(condition))) {
+			total += count.count();
+			if (count.kind() == ApproximateCount.Kind.ESTIMATE
+				|| count.kind() == ApproximateCount.Kind.AT_LEAST && kind == ApproximateCount.Kind.EXACT) {
+				kind = count.kind();
+			}
+		}
+		return new ApproximateCount(total, kind);
+	}
+
+	// 조건마다 샤드 결과를 이어 붙인 뒤 id 순으로 정렬하고 limit + 1건까지 남긴다.
+	public List<List<MemberTeamDto>> searchBatch(List<MemberSearchCondition> conditions, int limit) {
+		List<List<MemberTeamDto>> results = new ArrayList<>(conditions.size());
+		for (int i = 0; i < conditions.size(); i++) {
+			results.add(new ArrayList<>());
+		}
+		for (List<List<MemberTeamDto>> shardResults : scatter(null,
+			shard -> repositories.get(shard.index()).searchBatch(conditions, limit))) {
+			for (int i = 0; i < conditions.size(); i++) {
+				results.get(i).addAll(shardResults.get(i));
+			}
+		}
+		results.replaceAll(rows -> {
+			rows.sort(BY_MEMBER_ID);
+			return rows.size() > limit + 1 ? new ArrayList<>(rows.subList(0, limit + 1)) : rows;
+		});
+		return results;
+	}
+
+	// id 구간으로 샤드를 찾아 샤드마다 한 번에 조회한다. 결과는 ids 순서이며 없는 id는 빠진다.
+	public List<MemberTeamDto> findByIds(Collection<Long> ids) {
+		LinkedHashSet<Long> distinct = new LinkedHashSet<>(ids);
+		distinct.remove(null);
+		Map<Integer, List<Long>> byShard = new HashMap<>();
+		for (Long id : distinct) {
+			long index = id / ShardRegistry.ID_BLOCK;
+			if (id > 0 && index < registry.size()) {
+				byShard.computeIfAbsent((int)index, key -> new ArrayList<>()).add(id);
+			}
+		}
+
+		Map<Long, MemberTeamDto> found = new HashMap<>(distinct.size() * 2);
+		for (List<MemberTeamDto> rows : scatter(null, shard -> {
+			List<Long> shardIds = byShard.get(shard.index());
+			return shardIds == null ? List.<MemberTeamDto>of() : lookups.get(shard.index()).findByIds(shardIds);
+		})) {
+			rows.forEach(row -> found.put(row.getMemberId(), row));
+		}
+
+		List<MemberTeamDto> result = new ArrayList<>(found.size());
+		for (Long id : distinct) {
+			MemberTeamDto row = found.get(id);
+			if (row != null) {
+				result.add(row);
+			}
+		}
+		return result;
+	}
+
+	public Slice<MemberAgeRankDto> rankByAgeInTeam(String teamName, Pageable pageable) {
+		if (hasText(teamName)) {
+			return analytics.get(router.shardFor(teamName).index()).rankByAgeInTeam(teamName, pageable);
+		}
+		Pageable head = PageRequest.of(0, window(pageable));
+		List<MemberAgeRankDto> merged = new ArrayList<>();
+		boolean hasNext = false;
+		for (Slice<MemberAgeRankDto> slice : scatter(null,
+			shard -> analytics.get(shard.index()).rankByAgeInTeam(null, head))) {
+			merged.addAll(slice.getContent());
+			hasNext |= slice.hasNext();
+		}
+		merged.sort(BY_TEAM_AND_AGE);
+		return new SliceImpl<>(cut(merged, pageable), pageable, hasNext || merged.size() > head.getPageSize());
+	}
+
+	// 샤드 결과는 팀 id, 팀 안 순위 순이고 팀이 샤드에 겹치지 않으므로 팀 id로만 안정 정렬한다.
+	public List<MemberAgeRankDto> topByAgePerTeam(int limit) {
+		List<MemberAgeRankDto> merged = new ArrayList<>();
+		for (List<MemberAgeRankDto> rows : scatter(null, shard -> analytics.get(shard.index()).topByAgePerTeam(limit))) {
+			merged.addAll(rows);
+		}
+		merged.sort(Comparator.comparing(MemberAgeRankDto::getTeamId));
+		return merged;
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+		lookups.forEach(MemberBulkLookup::destroy);
+	}
+
+	// 샤드마다 읽어야 하는 행 수 (offset + size)
+	private int window(Pageable pageable) {
+		long window = pageable.getOffset() + pageable.getPageSize();
+		if (window > properties.getMaxPageWindow()) {
+			throw new RequestLimitExceededException("page window", (int)Math.min(window, Integer.MAX_VALUE),
+				properties.getMaxPageWindow());
+		}
+		return (int)window;
+	}
+
+	private static <T> List<T> cut(List<T> merged, Pageable pageable) {
+		int from = (int)Math.min(pageable.getOffset(), merged.size());
+		int to = (int)Math.min(pageable.getOffset() + pageable.getPageSize(), merged.size());
+		return new ArrayList<>(merged.subList(from, to));
+	}
+
+	// 팀명이 있으면 라우팅된 샤드만, 없으면 전 샤드에 병렬로 보낸다.
+	private <T> List<T> scatter(String teamName, Function<ShardRegistry.Shard, T> query) {
+		if (hasText(teamName)) {
+			return List.of(query.apply(router.shardFor(teamName)));
+		}
+		List<CompletableFuture<T>> futures = new ArrayList<>(registry.size());
+		for (ShardRegistry.Shard shard : registry.shards()) {
+			futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard), executor));
+		}
+		List<T> results = new ArrayList<>(futures.size());
+		try {
+			for (CompletableFuture<T> future : futures) {
+				results.add(future.join());
+			}
+		} catch (CompletionException e) {
+			futures.forEach(future -> future.cancel(true));
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+		return results;
+	}
+
+	private JPAQuery<MemberTeamDto> contentQuery(ShardRegistry.Shard shard, MemberSearchCondition condition) {
+		return shard.queryFactory()
+			.select(Projections.fields(MemberTeamDto.class,
+				member.id.as("memberId"),
+				member.username,
+				member.age,
+				team.id.as("teamId"),
+				team.name.as("teamName")))
+			.from(member)
+			.leftJoin(member.team, team)
+			.where(usernameEq(condition.getUsername(), condition.getUsernameMatch()),
+				teamNameEq(condition.getTeamName()),
+				ageGoe(condition.getAgeGoe()),
+				ageLoe(condition.getAgeLoe()));
+	}
+}
@@ -0,0 +1,48 @@
+package com.sparta.querydsltest.shard;
+
+import static com.sparta.querydsltest.entity.QTeam.*;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.sparta.querydsltest.entity.Member;
+import com.sparta.querydsltest.entity.Team;
+
+import lombok.RequiredArgsConstructor;
+
+// 팀 이름으로 정한 샤드에 팀과 회원을 저장한다. 팀과 그 팀의 회원은 항상 같은 샤드에 있다.
+@Component
+@ConditionalOnProperty(prefix = "shard", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ShardedMemberWriter {
+
+	private final ShardRouter router;
+
+	public Long saveTeam(String teamName) {
+		ShardRegistry.Shard shard = router.shardFor(teamName);
+		return shard.tx().execute(status -> findOrCreateTeam(shard, teamName).getId());
+	}
+
+	public Long saveMember(String username, int age, String teamName) {
+		ShardRegistry.Shard shard = router.shardFor(teamName);
+		return shard.tx().execute(status -> {
+			Team memberTeam = teamName != null ? findOrCreateTeam(shard, teamName) : null;
+			Member member = new Member(username, age, memberTeam);
+			shard.em().persist(member);
+			return member.getId();
+		});
+	}
+
+	private Team findOrCreateTeam(ShardRegistry.Shard shard, String teamName) {
+		Team found = shard.queryFactory()
+			.selectFrom(team)
+			.where(team.name.eq(teamName))
+			.fetchFirst();
+		if (found != null) {
+			return found;
+		}
+		Team created = new Team(teamName);
+		shard.em().persist(created);
+		return created;
+	}
+}
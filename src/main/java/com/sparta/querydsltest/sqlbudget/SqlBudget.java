@@ -0,0 +1,86 @@
+package com.sparta.querydsltest.sqlbudget;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 현재 요청(스레드)에서 실행된 SQL 수와 모양을 센다.
+ * SqlBudgetFilter가 시작/종료하고 SqlBudgetInspector가 SQL마다 record를 부른다.
+ * 세는 중이 아닌 스레드(샘플링 제외, 배치, 스케줄러)에서는 ThreadLocal 조회 한 번만 든다.
+ */
+final class SqlBudget {
+
+	private static final ThreadLocal<Usage> CURRENT = new ThreadLocal<>();
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+	// IN 절 파라미터 수만 다른 SQL은 같은 모양으로 본다.
+	private static final Pattern IN_LIST = Pattern.compile("\\(\\?(\\s*,\\s*\\?)+\\)");
+	private static final int MAX_SHAPE_LENGTH = 300;
+
+	static final class Usage {
+		private final Supplier<String> endpoint;
+		private final SqlBudgetProperties properties;
+		private final Map<String, Integer> shapes = new HashMap<>();
+		private int statements;
+		private int budget = -1;
+
+		private Usage(Supplier<String> endpoint, SqlBudgetProperties properties) {
+			this.endpoint = endpoint;
+			this.properties = properties;
+		}
+
+		int statements() {
+			return statements;
+		}
+
+		Map<String, Integer> shapes() {
+			return shapes;
+		}
+
+		// 핸들러가 정해진 뒤에야 URI 패턴을 알 수 있으므로 처음 필요할 때 구한다.
+		int budget() {
+			if (budget < 0) {
+				budget = properties.budgetOf(endpoint.get());
+			}
+			return budget;
+		}
+
+		String endpoint() {
+			return endpoint.get();
+		}
+
+		private void record(String sql) {
+			statements++;
+			shapes.merge(shapeOf(sql), 1, Integer::sum);
+			if (properties.getMode() == SqlBudgetProperties.Mode.REJECT && statements > budget()) {
+				throw new SqlBudgetExceededException(endpoint(), budget(), shapeOf(sql));
+			}
+		}
+	}
+
+	private SqlBudget() {
+	}
+
+	static Usage start(Supplier<String> endpoint, SqlBudgetProperties properties) {
+		Usage usage = new Usage(endpoint, properties);
+		CURRENT.set(usage);
+		return usage;
+	}
+
+	static void stop() {
+		CURRENT.remove();
+	}
+
+	static void record(String sql) {
+		Usage usage = CURRENT.get();
+		if (usage != null) {
+			usage.record(sql);
+		}
+	}
+
+	static String shapeOf(String sql) {
+		String shape = IN_LIST.matcher(WHITESPACE.matcher(sql.trim()).replaceAll(" ")).replaceAll("(?...)");
+		return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) + "..." : shape;
+	}
+}
@@ -0,0 +1,45 @@
+package com.sparta.querydsltest.sqlbudget;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "sql.budget", name = "enabled", havingValue = "true")
+class SqlBudgetConfig {
+
+	// MemberController의 엔드포인트에만 건다.
+	@Bean
+	FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(SqlBudgetProperties properties,
+		MeterRegistry meterRegistry) {
+		FilterRegistrationBean<SqlBudgetFilter> registration =
+			new FilterRegistrationBean<>(new SqlBudgetFilter(properties, meterRegistry));
+		registration.addUrlPatterns("/v1/members", "/v1/members/*", "/v2/members", "/v3/members", "/v4/members");
+		return registration;
+	}
+
+	@Bean
+	HibernatePropertiesCustomizer sqlBudgetInspector() {
+		return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR,
+			new SqlBudgetInspector(configuredInspector(hibernateProperties.get(AvailableSettings.STATEMENT_INSPECTOR))));
+	}
+
+	// hibernate.session_factory.statement_inspector는 인스턴스, 클래스, 클래스 이름 중 하나로 설정된다.
+	private static StatementInspector configuredInspector(Object setting) {
+		if (setting == null || setting instanceof StatementInspector) {
+			return (StatementInspector)setting;
+		}
+		Class<?> type = setting instanceof Class<?> clazz
+			? clazz
+			: ClassUtils.resolveClassName(setting.toString(), SqlBudgetConfig.class.getClassLoader());
+		return (StatementInspector)BeanUtils.instantiateClass(type);
+	}
+}
@@ -0,0 +1,16 @@
+package com.sparta.querydsltest.sqlbudget;
+
+import lombok.Getter;
+
+@Getter
+public class SqlBudgetExceededException extends RuntimeException {
+
+	private final String endpoint;
+	private final int budget;
+
+	public SqlBudgetExceededException(String endpoint, int budget, String sql) {
+		super("SQL budget of " + budget + " statements exceeded by " + endpoint + " at: " + sql);
+		this.endpoint = endpoint;
+		this.budget = budget;
+	}
+}
@@ -0,0 +1,73 @@
+package com.sparta.querydsltest.sqlbudget;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 샘플링된 요청마다 실행한 SQL 수를 세고, 엔드포인트 예산을 넘으면 많이 실행된 SQL 모양과 함께 남긴다.
+ *
+ * 지연 로딩(Member.team, Team.members)으로 요청당 SQL이 늘어나는 것을 운영에서 잡기 위한 것이다.
+ * 다른 스레드에서 실행되는 SQL(샤드 병렬 조회, 병렬 id 조회)은 세지 않는다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class SqlBudgetFilter extends OncePerRequestFilter {
+
+	private final SqlBudgetProperties properties;
+	private final MeterRegistry meterRegistry;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+		throws ServletException, IOException {
+		if (ThreadLocalRandom.current().nextDouble() >= properties.getSampleRate()) {
+			chain.doFilter(request, response);
+			return;
+		}
+		SqlBudget.Usage usage = SqlBudget.start(() -> endpointOf(request), properties);
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			SqlBudget.stop();
+			report(usage);
+		}
+	}
+
+	private void report(SqlBudget.Usage usage) {
+		String endpoint = usage.endpoint();
+		DistributionSummary.builder("sql.budget.statements")
+			.tag("endpoint", endpoint)
+			.register(meterRegistry)
+			.record(usage.statements());
+		if (usage.statements() <= usage.budget()) {
+			return;
+		}
+		meterRegistry.counter("sql.budget.exceeded", "endpoint", endpoint).increment();
+		String shapes = usage.shapes().entrySet().stream()
+			.sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+			.limit(properties.getReportedShapes())
+			.map(entry -> entry.getValue() + "x " + entry.getKey())
+			.collect(Collectors.joining("\n  ", "\n  ", ""));
+		log.warn("{} executed {} SQL statements (budget {}):{}", endpoint, usage.statements(), usage.budget(), shapes);
+	}
+
+	// 핸들러 매핑 전이면(404 등) 실제 URI 대신 UNKNOWN을 써서 메트릭 태그 수가 늘지 않게 한다.
+	private static String endpointOf(HttpServletRequest request) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		return request.getMethod() + " " + (pattern != null ? pattern : "UNKNOWN");
+	}
+}
@@ -0,0 +1,19 @@
+package com.sparta.querydsltest.sqlbudget;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// 이미 설정된 StatementInspector가 있으면 그 뒤에 이어서 호출한다. (Hibernate는 하나만 받는다)
+class SqlBudgetInspector implements StatementInspector {
+
+	private final StatementInspector next;
+
+	SqlBudgetInspector(StatementInspector next) {
+		this.next = next;
+	}
+
+	@Override
+	public String inspect(String sql) {
+		SqlBudget.record(sql);
+		return next != null ? next.inspect(sql) : sql;
+	}
+}
@@ -0,0 +1,37 @@
+package com.sparta.querydsltest.sqlbudget;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "sql.budget")
+public class SqlBudgetProperties {
+
+	public enum Mode {
+		// 초과한 요청을 로그와 메트릭으로만 남긴다.
+		LOG,
+		// 예산을 넘는 SQL을 실행하려는 순간 요청을 실패시킨다.
+		REJECT
+	}
+
+	// 켜면 회원 API 요청마다 실행한 SQL 수를 센다.
+	private boolean enabled = false;
+	private Mode mode = Mode.LOG;
+	// 세는 요청 비율 (0.0 ~ 1.0). 운영에서는 일부만 센다.
+	private double sampleRate = 1.0;
+	private int maxStatements = 10;
+	// "GET /v1/members" 처럼 HTTP 메서드와 URI 패턴별 예산. 없으면 maxStatements를 쓴다.
+	private Map<String, Integer> endpoints = new HashMap<>();
+	// 초과 시 로그에 남기는 SQL 모양 수 (많이 실행된 순)
+	private int reportedShapes = 5;
+
+	public int budgetOf(String endpoint) {
+		return endpoints.getOrDefault(endpoint, maxStatements);
+	}
+}
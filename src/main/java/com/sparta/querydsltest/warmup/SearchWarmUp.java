@@ -0,0 +1,175 @@
+package com.sparta.querydsltest.warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QTuple;
+import com.sparta.querydsltest.dto.MemberSearchCondition;
+import com.sparta.querydsltest.dto.MemberTeamDto;
+import com.sparta.querydsltest.entity.QMember;
+import com.sparta.querydsltest.entity.QTeam;
+import com.sparta.querydsltest.repository.MemberJpaRepository;
+import com.sparta.querydsltest.repository.MemberRepository;
+import com.sparta.querydsltest.web.MemberTeamJsonWriter;
+import com.sparta.querydsltest.web.MemberTeamRowsCodec;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 시작 직후 검색 경로를 미리 실행해서 첫 요청이 HQL→SQL 변환, QueryDSL 직렬화, JIT 컴파일 비용을 내지 않게 한다.
+ *
+ * MemberSearchCondition 필드 4개의 유무 조합 16가지 각각에 대해 /v1(건수 제한 포함), /v2, /v3(와 direct-json)의
+ * 내용/count 쿼리를 실제로 실행해 Hibernate 쿼리 플랜 캐시를 채우고, 응답 직렬화 경로를 반복 호출한다.
+ * 값은 거의 아무것도 맞지 않도록 고른다. (플랜은 값이 아니라 조건 모양으로 캐시된다)
+ * 끝날 때까지 WarmUpHealthIndicator가 OUT_OF_SERVICE를 내서 readiness 그룹이 트래픽을 받지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchWarmUp {
+
+	public enum State {
+		PENDING, RUNNING, COMPLETED, FAILED, DISABLED
+	}
+
+	static final int SHAPES = 16;
+	static final int SAMPLE_ROWS = 100;
+	// 두 번째 페이지이고 결과가 비어 있으면 PageableExecutionUtils가 count 쿼리를 생략하지 않는다.
+	private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+	private static final Pageable COUNTED_PAGE = PageRequest.of(1, 1);
+	private static final QTuple ROW = Projections.tuple(QMember.member.id, QMember.member.username,
+		QMember.member.age, QTeam.team.id, QTeam.team.name);
+
+	private final WarmUpProperties properties;
+	private final MemberJpaRepository memberJpaRepository;
+	private final MemberRepository memberRepository;
+	private final ObjectMapper objectMapper;
+	private final MemberTeamJsonWriter jsonWriter;
+
+	private final TaskExecutor executor = new SimpleAsyncTaskExecutor("search-warmup-");
+	private volatile State state = State.PENDING;
+
+	public State getState() {
+		return state;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!properties.isEnabled()) {
+			state = State.DISABLED;
+			return;
+		}
+		executor.execute(() -> {
+			try {
+				warmUp();
+			} catch (RuntimeException e) {
+				// 워밍업 실패로 서비스를 막지는 않는다. (첫 요청이 느릴 뿐)
+				state = State.FAILED;
+				log.warn("search warm-up failed", e);
+			}
+		});
+	}
+
+	void warmUp() {
+		state = State.RUNNING;
+		long start = System.nanoTime();
+		boolean fullScan = memberRepository.count() <= properties.getMaxFullScanRows();
+		for (int round = 0; round < properties.getQueryRounds(); round++) {
+			for (int shape = 0; shape < SHAPES; shape++) {
+				runQueries(conditionOf(shape), shape != 0 || fullScan);
+			}
+		}
+		long queriesDone = System.nanoTime();
+
+		List<MemberTeamDto> rows = sampleRows();
+		List<Tuple> tuples = sampleTuples(rows);
+		for (int round = 0; round < properties.getSerializationRounds(); round++) {
+			serialize(rows, tuples);
+		}
+		state = State.COMPLETED;
+		log.info("search warm-up completed: queries {} ms, serialization {} ms",
+			(queriesDone - start) / 1_000_000, (System.nanoTime() - queriesDone) / 1_000_000);
+	}
+
+	// /v1의 건수 제한 조회(id 순 + limit)는 limit 값이 파라미터로 바인딩되므로 아무 값으로나 실행해도 같은 플랜이 된다.
+	private void runQueries(MemberSearchCondition condition, boolean includeUnpaged) {
+		memberRepository.search(condition, SAMPLE_ROWS);
+		if (includeUnpaged) {
+			memberJpaRepository.search(condition);
+			try (Stream<Tuple> stream = memberRepository.streamSearch(condition)) {
+				stream.findFirst();
+			}
+		}
+		memberRepository.searchPageSimple(condition, FIRST_PAGE);
+		memberRepository.searchPageComplex(condition, COUNTED_PAGE);
+		memberRepository.searchPageTuples(condition, COUNTED_PAGE);
+	}
+
+	// shape의 비트가 켜진 필드만 채운다. (1: username, 2: teamName, 4: ageGoe, 8: ageLoe)
+	static MemberSearchCondition conditionOf(int shape) {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		if ((shape & 1) != 0) {
+			condition.setUsername("__warmup__");
+		}
+		if ((shape & 2) != 0) {
+			condition.setTeamName("__warmup__");
+		}
+		if ((shape & 4) != 0) {
+			condition.setAgeGoe(Integer.MAX_VALUE);
+		}
+		if ((shape & 8) != 0) {
+			condition.setAgeLoe(Integer.MIN_VALUE);
+		}
+		return condition;
+	}
+
+	private void serialize(List<MemberTeamDto> rows, List<Tuple> tuples) {
+		try {
+			objectMapper.writeValueAsBytes(rows);
+			objectMapper.writeValueAsBytes(new PageImpl<>(rows, FIRST_PAGE, rows.size()));
+			MemberTeamRowsCodec.encode(rows);
+			jsonWriter.writeList(tuples.stream(), OutputStream.nullOutputStream());
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static List<MemberTeamDto> sampleRows() {
+		List<MemberTeamDto> rows = new ArrayList<>(SAMPLE_ROWS);
+		for (int i = 0; i < SAMPLE_ROWS; i++) {
+			long teamId = i % 4 + 1;
+			rows.add(new MemberTeamDto((long)i + 1, "member" + (i + 1), i + 1, i % 10 == 0 ? null : teamId,
+				i % 10 == 0 ? null : "team" + teamId));
+		}
+		return rows;
+	}
+
+	private static List<Tuple> sampleTuples(List<MemberTeamDto> rows) {
+		List<Tuple> tuples = new ArrayList<>(rows.size());
+		for (MemberTeamDto row : rows) {
+			tuples.add(ROW.newInstance(row.getMemberId(), row.getUsername(), row.getAge(), row.getTeamId(),
+				row.getTeamName()));
+		}
+		return tuples;
+	}
+}
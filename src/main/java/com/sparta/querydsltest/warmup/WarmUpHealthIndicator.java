@@ -0,0 +1,26 @@
+package com.sparta.querydsltest.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+// 검색 워밍업 진행 상황. readiness 그룹에 포함되어 있어 끝나기 전에는 트래픽을 받지 않는다.
+// 실패하면 워밍업 없이 받는다. (첫 요청들이 느릴 뿐 동작에는 문제가 없다)
+@Component
+@RequiredArgsConstructor
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+	private final SearchWarmUp warmUp;
+
+	@Override
+	public Health health() {
+		SearchWarmUp.State state = warmUp.getState();
+		Health.Builder builder = switch (state) {
+			case COMPLETED, DISABLED, FAILED -> Health.up();
+			case PENDING, RUNNING -> Health.outOfService();
+		};
+		return builder.withDetail("state", state).build();
+	}
+}
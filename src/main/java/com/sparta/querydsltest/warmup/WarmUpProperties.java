@@ -0,0 +1,21 @@
+package com.sparta.querydsltest.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "warmup")
+public class WarmUpProperties {
+
+	// 시작 후 검색 쿼리/직렬화 경로를 미리 실행할지 여부
+	private boolean enabled = false;
+	// 조건 모양 16가지 x 검색 쿼리를 반복하는 횟수
+	private int queryRounds = 5;
+	// 직렬화 반복 횟수 (한 번에 SAMPLE_ROWS 행). C2 컴파일 임계값을 넘길 만큼 돌린다.
+	private int serializationRounds = 200;
+	// 조건이 없는 목록 조회는 테이블 전체를 읽으므로 회원 수가 이 값 이하일 때만 실행한다.
+	private long maxFullScanRows = 10_000;
+}
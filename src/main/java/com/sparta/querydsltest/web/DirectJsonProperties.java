@@ -0,0 +1,15 @@
+package com.sparta.querydsltest.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "search.direct-json")
+public class DirectJsonProperties {
+
+	// 켜면 /v1, /v2 검색 결과를 MemberTeamJsonWriter로 바로 쓴다. (Accept가 JSON일 때만)
+	private boolean enabled = false;
+}
@@ -0,0 +1,111 @@
+package com.sparta.querydsltest.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.querydsl.core.Tuple;
+
+/**
+ * 검색 결과 Tuple을 MemberTeamDto를 거치지 않고 바로 JSON으로 쓴다.
+ *
+ * Tuple 열 순서는 MemberRepositoryCustom.streamSearch와 같다. (memberId, username, age, teamId, teamName)
+ * 필드 이름은 미리 인코딩해 두고, 행 하나는 MemberTeamDto를 Jackson으로 쓴 것과 같은 JSON이 된다.
+ * 페이지는 Jackson이 PageImpl을 쓰는 것과 같은 형태로 쓴다. (content 외 필드는 ObjectMapper가 만든 것을 그대로 쓴다)
+ */
+@Component
+public class MemberTeamJsonWriter {
+
+	private static final SerializedString MEMBER_ID = new SerializedString("memberId");
+	private static final SerializedString USERNAME = new SerializedString("username");
+	private static final SerializedString AGE = new SerializedString("age");
+	private static final SerializedString TEAM_ID = new SerializedString("teamId");
+	private static final SerializedString TEAM_NAME = new SerializedString("teamName");
+	private static final String CONTENT = "content";
+
+	private final ObjectMapper objectMapper;
+	private final JsonFactory jsonFactory;
+
+	public MemberTeamJsonWriter(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+		this.jsonFactory = objectMapper.getFactory();
+	}
+
+	// 스트림은 여기서 닫는다. 쓴 행 수를 돌려준다.
+	public long writeList(Stream<Tuple> rows, OutputStream out) throws IOException {
+		long count = 0;
+		try (rows; JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+			generator.writeStartArray();
+			Iterator<Tuple> iterator = rows.iterator();
+			while (iterator.hasNext()) {
+				writeRow(generator, iterator.next());
+				count++;
+			}
+			generator.writeEndArray();
+		}
+		return count;
+	}
+
+	// 행 수만 같은 빈 페이지를 ObjectMapper로 트리로 만들어 필드 이름과 순서를 얻고, content 자리에 행을 바로 쓴다.
+	// (numberOfElements, empty 등 행 수에 따라 달라지는 값도 Jackson 경로와 같아진다)
+	public void writePage(Page<Tuple> page, OutputStream out) throws IOException {
+		ObjectNode layout = objectMapper.valueToTree(new PageImpl<>(
+			Collections.nCopies(page.getNumberOfElements(), null), page.getPageable(), page.getTotalElements()));
+		try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+			generator.writeStartObject();
+			Iterator<Map.Entry<String, JsonNode>> fields = layout.fields();
+			while (fields.hasNext()) {
+				Map.Entry<String, JsonNode> field = fields.next();
+				generator.writeFieldName(field.getKey());
+				if (!CONTENT.equals(field.getKey())) {
+					objectMapper.writeTree(generator, field.getValue());
+					continue;
+				}
+				generator.writeStartArray();
+				for (Tuple row : page.getContent()) {
+					writeRow(generator, row);
+				}
+				generator.writeEndArray();
+			}
+			generator.writeEndObject();
+		}
+	}
+
+	static void writeRow(JsonGenerator generator, Tuple row) throws IOException {
+		generator.writeStartObject();
+		generator.writeFieldName(MEMBER_ID);
+		writeLong(generator, row.get(0, Long.class));
+		generator.writeFieldName(USERNAME);
+		generator.writeString(row.get(1, String.class));
+		generator.writeFieldName(AGE);
+		Integer age = row.get(2, Integer.class);
+		generator.writeNumber(age != null ? age : 0);
+		generator.writeFieldName(TEAM_ID);
+		writeLong(generator, row.get(3, Long.class));
+		generator.writeFieldName(TEAM_NAME);
+		generator.writeString(row.get(4, String.class));
+		generator.writeEndObject();
+	}
+
+	private static void writeLong(JsonGenerator generator, Long value) throws IOException {
+		if (value == null) {
+			generator.writeNull();
+		} else {
+			generator.writeNumber(value);
+		}
+	}
+}
@@ -0,0 +1,241 @@
+package com.sparta.querydsltest.web;
+
+import static java.nio.charset.StandardCharsets.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+
+import com.sparta.querydsltest.dto.MemberTeamDto;
+
+/**
+ * MemberTeamDto 목록/페이지를 위한 길이 접두(length-prefixed) 바이너리 포맷.
+ *
+ * [magic:int][flags:byte][page:varint][size:varint][total:varlong]   (page 정보는 flags & PAGED 일 때만)
+ * [teamCount:varint] { [teamId:varlong][teamName:string] }            팀 사전 (행에서는 인덱스로 참조)
+ * [rowCount:varint]  { [memberId:varlong][username:string][age:varint][teamRef:varint] }
+ *
+ * varlong은 null을 0으로, 값은 +1 해서 쓴다. string은 null이면 0, 아니면 (UTF-8 길이 + 1) 뒤에 바이트.
+ * teamRef 0은 팀 없음, n은 사전의 n-1번째 팀이다.
+ */
+public final class MemberTeamRowsCodec {
+
+	public static final String MEDIA_TYPE_VALUE = "application/x-member-rows";
+	public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+	private static final int MAGIC = 0x4D545231; // "MTR1"
+	private static final int PAGED = 1;
+
+	private MemberTeamRowsCodec() {
+	}
+
+	public static byte[] encode(List<MemberTeamDto> rows) {
+		return encode(rows, null);
+	}
+
+	public static byte[] encode(Page<MemberTeamDto> page) {
+		return encode(page.getContent(), page);
+	}
+
+	private static byte[] encode(List<MemberTeamDto> rows, Page<?> page) {
+		Map<TeamKey, Integer> teamRefs = new HashMap<>();
+		List<TeamKey> teams = new ArrayList<>();
+		int[] refs = new int[rows.size()];
+		for (int i = 0; i < rows.size(); i++) {
+			MemberTeamDto row = rows.get(i);
+			if (row.getTeamId() == null && row.getTeamName() == null) {
+				continue;
+			}
+			TeamKey key = new TeamKey(row.getTeamId(), row.getTeamName());
+			Integer ref = teamRefs.get(key);
+			if (ref == null) {
+				teams.add(key);
+				ref = teams.size();
+				teamRefs.put(key, ref);
+			}
+			refs[i] = ref;
+		}
+
+		// 대부분 ASCII 이름이므로 행당 24바이트 정도로 시작한다.
+		Writer out = new Writer(32 + teams.size() * 16 + rows.size() * 24);
+		out.writeInt(MAGIC);
+		if (page != null) {
+			out.writeByte(PAGED);
+			Pageable pageable = page.getPageable();
+			out.writeVarLong(pageable.isPaged() ? pageable.getPageNumber() : 0);
+			out.writeVarLong(pageable.isPaged() ? pageable.getPageSize() : page.getNumberOfElements());
+			out.writeVarLong(page.getTotalElements());
+		} else {
+			out.writeByte(0);
+		}
+		out.writeVarLong(teams.size());
+		for (TeamKey team : teams) {
+			out.writeNullableLong(team.id());
+			out.writeString(team.name());
+		}
+		out.writeVarLong(rows.size());
+		for (int i = 0; i < rows.size(); i++) {
+			MemberTeamDto row = rows.get(i);
+			out.writeNullableLong(row.getMemberId());
+			out.writeString(row.getUsername());
+			out.writeVarLong(row.getAge() & 0xFFFFFFFFL);
+			out.writeVarLong(refs[i]);
+		}
+		return out.toByteArray();
+	}
+
+	public static List<MemberTeamDto> decodeList(byte[] bytes) {
+		return decodePage(bytes).getContent();
+	}
+
+	// 페이지 정보가 없으면 전체 목록을 하나의 페이지로 돌려준다.
+	public static Page<MemberTeamDto> decodePage(byte[] bytes) {
+		Reader in = new Reader(bytes);
+		if (in.readInt() != MAGIC) {
+			throw new IllegalArgumentException("not a member rows payload");
+		}
+		boolean paged = (in.readByte() & PAGED) != 0;
+		int pageNumber = 0;
+		int pageSize = 0;
+		long total = 0;
+		if (paged) {
+			pageNumber = (int)in.readVarLong();
+			pageSize = (int)in.readVarLong();
+			total = in.readVarLong();
+		}
+		int teamCount = (int)in.readVarLong();
+		Long[] teamIds = new Long[teamCount];
+		String[] teamNames = new String[teamCount];
+		for (int i = 0; i < teamCount; i++) {
+			teamIds[i] = in.readNullableLong();
+			teamNames[i] = in.readString();
+		}
+		int rowCount = (int)in.readVarLong();
+		List<MemberTeamDto> rows = new ArrayList<>(rowCount);
+		for (int i = 0; i < rowCount; i++) {
+			Long memberId = in.readNullableLong();
+			String username = in.readString();
+			int age = (int)in.readVarLong();
+			int ref = (int)in.readVarLong();
+			rows.add(ref == 0
+				? new MemberTeamDto(memberId, username, age, null, null)
+				: new MemberTeamDto(memberId, username, age, teamIds[ref - 1], teamNames[ref - 1]));
+		}
+		if (!paged || pageSize == 0) {
+			return new PageImpl<>(rows);
+		}
+		return new PageImpl<>(rows, PageRequest.of(pageNumber, pageSize), total);
+	}
+
+	private record TeamKey(Long id, String name) {
+	}
+
+	private static final class Writer {
+		private byte[] buf;
+		private int pos;
+
+		Writer(int capacity) {
+			buf = new byte[capacity];
+		}
+
+		void writeByte(int value) {
+			ensure(1);
+			buf[pos++] = (byte)value;
+		}
+
+		void writeInt(int value) {
+			ensure(4);
+			buf[pos++] = (byte)(value >>> 24);
+			buf[pos++] = (byte)(value >>> 16);
+			buf[pos++] = (byte)(value >>> 8);
+			buf[pos++] = (byte)value;
+		}
+
+		void writeVarLong(long value) {
+			ensure(10);
+			while ((value & ~0x7FL) != 0) {
+				buf[pos++] = (byte)((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			buf[pos++] = (byte)value;
+		}
+
+		void writeNullableLong(Long value) {
+			writeVarLong(value == null ? 0 : value + 1);
+		}
+
+		void writeString(String value) {
+			if (value == null) {
+				writeVarLong(0);
+				return;
+			}
+			byte[] bytes = value.getBytes(UTF_8);
+			writeVarLong(bytes.length + 1L);
+			ensure(bytes.length);
+			System.arraycopy(bytes, 0, buf, pos, bytes.length);
+			pos += bytes.length;
+		}
+
+		byte[] toByteArray() {
+			return Arrays.copyOf(buf, pos);
+		}
+
+		private void ensure(int extra) {
+			if (pos + extra > buf.length) {
+				buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+			}
+		}
+	}
+
+	private static final class Reader {
+		private final byte[] buf;
+		private int pos;
+
+		Reader(byte[] buf) {
+			this.buf = buf;
+		}
+
+		int readByte() {
+			return buf[pos++] & 0xFF;
+		}
+
+		int readInt() {
+			return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+		}
+
+		long readVarLong() {
+			long value = 0;
+			int shift = 0;
+			int b;
+			do {
+				b = readByte();
+				value |= (long)(b & 0x7F) << shift;
+				shift += 7;
+			} while ((b & 0x80) != 0);
+			return value;
+		}
+
+		Long readNullableLong() {
+			long value = readVarLong();
+			return value == 0 ? null : value - 1;
+		}
+
+		String readString() {
+			int length = (int)readVarLong();
+			if (length == 0) {
+				return null;
+			}
+			String value = new String(buf, pos, length - 1, UTF_8);
+			pos += length - 1;
+			return value;
+		}
+	}
+}
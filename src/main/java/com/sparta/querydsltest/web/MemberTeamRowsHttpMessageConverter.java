@@ -0,0 +1,73 @@
+package com.sparta.querydsltest.web;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import com.sparta.querydsltest.dto.MemberTeamDto;
+
+// Accept: application/x-member-rows 요청에 List/Page<MemberTeamDto>를 MemberTeamRowsCodec 포맷으로 응답한다.
+public class MemberTeamRowsHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+	public MemberTeamRowsHttpMessageConverter() {
+		super(MemberTeamRowsCodec.MEDIA_TYPE);
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return List.class.isAssignableFrom(clazz) || Page.class.isAssignableFrom(clazz);
+	}
+
+	@Override
+	public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+		return false;
+	}
+
+	@Override
+	protected boolean canRead(MediaType mediaType) {
+		return false;
+	}
+
+	@Override
+	public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+		if (!canWrite(mediaType) || type == null) {
+			return false;
+		}
+		ResolvableType resolved = ResolvableType.forType(type);
+		Class<?> container = resolved.resolve();
+		if (container == null || !supports(container)) {
+			return false;
+		}
+		Class<?> element = (Page.class.isAssignableFrom(container)
+			? resolved.as(Page.class) : resolved.as(List.class)).getGeneric(0).resolve();
+		return element != null && MemberTeamDto.class.isAssignableFrom(element);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+		byte[] bytes = value instanceof Page<?> page
+			? MemberTeamRowsCodec.encode((Page<MemberTeamDto>)page)
+			: MemberTeamRowsCodec.encode((List<MemberTeamDto>)value);
+		outputMessage.getHeaders().setContentLength(bytes.length);
+		outputMessage.getBody().write(bytes);
+	}
+
+	@Override
+	public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+		throw new HttpMessageNotReadableException("member rows format is write-only", inputMessage);
+	}
+
+	@Override
+	protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+		throw new HttpMessageNotReadableException("member rows format is write-only", inputMessage);
+	}
+}
@@ -0,0 +1,14 @@
+package com.sparta.querydsltest.web;
+
+import lombok.Getter;
+
+@Getter
+public class RequestLimitExceededException extends RuntimeException {
+
+	private final int limit;
+
+	public RequestLimitExceededException(String what, int size, int limit) {
+		super(what + " " + size + " exceeds the limit of " + limit);
+		this.limit = limit;
+	}
+}
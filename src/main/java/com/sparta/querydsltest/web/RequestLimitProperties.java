@@ -0,0 +1,17 @@
+package com.sparta.querydsltest.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "search.request-limit")
+public class RequestLimitProperties {
+
+	// POST /v1/members/batch 한 요청에 받는 최대 조건 수
+	private int maxBatchConditions = 100;
+	// POST /v1/members/lookup 한 요청에 받는 최대 id 수
+	private int maxLookupIds = 1_000;
+}
@@ -0,0 +1,23 @@
+package com.sparta.querydsltest.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "search.result-limit")
+public class ResultLimitProperties {
+
+	public enum Overflow {
+		// JSON 응답이면 목록에 모으지 않고 DB에서 읽는 대로 전부 스트리밍한다. (아니면 TRUNCATE)
+		STREAM,
+		// maxRows 건까지만 응답하고 X-Result-Truncated 헤더로 알린다.
+		TRUNCATE
+	}
+
+	// /v1/members가 목록으로 모아서 응답하는 최대 건수
+	private int maxRows = 10_000;
+	private Overflow overflow = Overflow.STREAM;
+}
@@ -0,0 +1,17 @@
+package com.sparta.querydsltest.web;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+	// application/cbor는 jackson-dataformat-cbor가 있으면 스프링이 기본으로 등록한다.
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		converters.add(new MemberTeamRowsHttpMessageConverter());
+	}
+}
@@ -10,6 +10,7 @@ import java.util.List;
 import org.aspectj.lang.annotation.Before;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +26,8 @@ import com.sparta.querydsltest.entity.Member;
 import com.sparta.querydsltest.entity.QMember;
 import com.sparta.querydsltest.entity.QTeam;
 import com.sparta.querydsltest.entity.Team;
+import com.sparta.querydsltest.support.SqlCount;
+import com.sparta.querydsltest.support.SqlCountExtension;
 import static org.assertj.core.api.Assertions.assertThat;
 
 
@@ -35,6 +38,7 @@ import jakarta.persistence.PersistenceUnits;
 
 @SpringBootTest
 @Transactional
+@ExtendWith(SqlCountExtension.class)
 public class QuerydslBasicTest {
 
 	@Autowired
@@ -321,6 +325,7 @@ public class QuerydslBasicTest {
 	public void fetchJoinNo() {
 		em.flush();
 		em.clear();
+		SqlCount.reset();
 
 		Member findMember = queryFactory
 			.selectFrom(member)
@@ -329,12 +334,18 @@ public class QuerydslBasicTest {
 
 		boolean loaded = emf.getPersistenceUnitUtil().isLoaded(findMember.getTeam());
 		assertThat(loaded).as("패치 조인 미적용").isFalse();
+		SqlCount.assertSelectCount(1);
+
+		// 지연 로딩된 팀에 접근하는 순간 select가 한 번 더 나간다.
+		findMember.getTeam().getName();
+		SqlCount.assertSelectCount(2);
 	}
 
 	@Test
 	public void fetchJoinUse() {
 		em.flush();
 		em.clear();
+		SqlCount.reset();
 
 		Member findMember = queryFactory
 			.selectFrom(member)
@@ -344,6 +355,9 @@ public class QuerydslBasicTest {
 
 		boolean loaded = emf.getPersistenceUnitUtil().isLoaded(findMember.getTeam());
 		assertThat(loaded).as("패치 조인 적용").isTrue();
+
+		findMember.getTeam().getName();
+		SqlCount.assertSelectCount(1);
 	}
 
 	/**
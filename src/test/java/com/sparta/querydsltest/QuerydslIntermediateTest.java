@@ -245,6 +245,8 @@ public class QuerydslIntermediateTest {
 		long count = queryFactory
 			.update(member)
 			.set(member.username, "비회원")
+			// 벌크 수정은 setUsername을 거치지 않으므로 정규화 컬럼도 직접 바꾼다.
+			.set(member.usernameNormalized, Member.normalizeUsername("비회원"))
 			.where(member.age.lt(28))
 			.execute();
 
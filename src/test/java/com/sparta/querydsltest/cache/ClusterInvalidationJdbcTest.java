@@ -0,0 +1,111 @@
+package com.sparta.querydsltest.cache;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// 두 노드가 같은 H2 DB의 cache_invalidation 테이블로 알림을 주고받는다.
+class ClusterInvalidationJdbcTest {
+
+	JdbcTemplate jdbcTemplate;
+	MemberLookupCache receiverCache;
+	DataVersion receiverVersion;
+	ClusterInvalidation receiver;
+	ClusterInvalidation sender;
+
+	@BeforeEach
+	public void before() {
+		jdbcTemplate = new JdbcTemplate(
+			new DriverManagerDataSource("jdbc:h2:mem:cache-invalidation;DB_CLOSE_DELAY=-1", "sa", ""));
+		InvalidationProperties properties = new InvalidationProperties();
+		properties.setMaxPayloadBytes(200);
+
+		receiverCache = new MemberLookupCache(null, new MemberSnapshotProperties());
+		receiverVersion = new DataVersion();
+		receiver = new ClusterInvalidation(transport(), properties,
+			new StaticListableBeanFactory(Map.of("memberLookupCache", receiverCache))
+				.getBeanProvider(MemberLookupCache.class), receiverVersion);
+		sender = new ClusterInvalidation(transport(), properties,
+			new StaticListableBeanFactory().getBeanProvider(MemberLookupCache.class), new DataVersion());
+		receiver.afterPropertiesSet();
+		sender.afterPropertiesSet();
+	}
+
+	@AfterEach
+	public void after() {
+		sender.destroy();
+		receiver.destroy();
+	}
+
+	@Test
+	public void peerEvictsChangedMember() throws Exception {
+		receiverCache.putMember(new MemberLookupCache.MemberRow(1L, "member1", 10, null));
+		receiverCache.putMember(new MemberLookupCache.MemberRow(2L, "member2", 20, null));
+
+		sender.memberChanged(1L);
+
+		awaitUntil(() -> receiverCache.find(1L).isEmpty());
+		assertThat(receiverCache.find(2L)).isPresent();
+	}
+
+	@Test
+	public void oversizedKeyFallsBackToEpoch() throws Exception {
+		receiverCache.putMember(new MemberLookupCache.MemberRow(1L, "member1", 10, null));
+		long before = receiverVersion.current();
+
+		// 한 트랜잭션의 키는 한 묶음으로 발행된다.
+		inCommittedTransaction(() -> {
+			sender.memberInserted("team".repeat(100));
+			sender.memberChanged(1L);
+		});
+
+		awaitUntil(() -> receiverCache.find(1L).isEmpty());
+		awaitUntil(() -> receiverVersion.current() > before);
+	}
+
+	@Test
+	public void destroyPublishesQueuedKeys() throws Exception {
+		receiverCache.putMember(new MemberLookupCache.MemberRow(1L, "member1", 10, null));
+
+		sender.memberChanged(1L);
+		sender.destroy();
+
+		awaitUntil(() -> receiverCache.find(1L).isEmpty());
+	}
+
+	private JdbcInvalidationTransport transport() {
+		return new JdbcInvalidationTransport(jdbcTemplate, Duration.ofMillis(20), Duration.ofMinutes(5));
+	}
+
+	private static void inCommittedTransaction(Runnable work) {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			work.run();
+			for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+				synchronization.afterCommit();
+				synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+}
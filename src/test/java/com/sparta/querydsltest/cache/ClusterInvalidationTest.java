@@ -0,0 +1,109 @@
+package com.sparta.querydsltest.cache;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.Pageable;
+
+import com.sparta.querydsltest.dto.MemberSearchCondition;
+
+// 두 노드를 loopback UDP로 연결해 한쪽의 변경 알림이 다른 쪽 캐시에 반영되는지 본다.
+class ClusterInvalidationTest {
+
+	UdpInvalidationTransport receiverTransport;
+	UdpInvalidationTransport senderTransport;
+	MemberLookupCache receiverCache;
+	DataVersion receiverVersion;
+	ClusterInvalidation receiver;
+	ClusterInvalidation sender;
+
+	@BeforeEach
+	public void before() throws Exception {
+		InvalidationProperties properties = new InvalidationProperties();
+		receiverTransport = new UdpInvalidationTransport(0, List.of());
+		senderTransport = new UdpInvalidationTransport(0,
+			List.of(new InetSocketAddress("127.0.0.1", receiverTransport.localPort())));
+
+		receiverCache = new MemberLookupCache(null, new MemberSnapshotProperties());
+		receiverVersion = new DataVersion();
+		receiver = new ClusterInvalidation(receiverTransport, properties,
+			new StaticListableBeanFactory(Map.of("memberLookupCache", receiverCache))
+				.getBeanProvider(MemberLookupCache.class), receiverVersion);
+		// 보내는 쪽은 캐시가 꺼진 노드
+		sender = new ClusterInvalidation(senderTransport, properties,
+			new StaticListableBeanFactory().getBeanProvider(MemberLookupCache.class), new DataVersion());
+		receiver.afterPropertiesSet();
+		sender.afterPropertiesSet();
+	}
+
+	@AfterEach
+	public void after() {
+		sender.destroy();
+		receiver.destroy();
+	}
+
+	@Test
+	public void peerEvictsChangedMember() throws Exception {
+		receiverCache.putMember(new MemberLookupCache.MemberRow(1L, "member1", 10, null));
+		receiverCache.putMember(new MemberLookupCache.MemberRow(2L, "member2", 20, null));
+
+		sender.memberChanged(1L);
+
+		awaitUntil(() -> receiverCache.find(1L).isEmpty());
+		assertThat(receiverCache.find(2L)).isPresent();
+	}
+
+	@Test
+	public void peerBumpsDataVersion() throws Exception {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("teamA");
+		String before = receiverVersion.etag(condition, Pageable.unpaged(), "*/*");
+
+		sender.memberInserted("teamA");
+
+		awaitUntil(() -> !receiverVersion.etag(condition, Pageable.unpaged(), "*/*").equals(before));
+	}
+
+	@Test
+	public void ownInvalidationsAreIgnored() {
+		byte[] payload = InvalidationCodec.encode("other", List.of(ClusterInvalidation.EPOCH), 1_400).get(0);
+		long before = receiverVersion.current();
+
+		receiver.receive(payload);
+		receiver.receive(InvalidationCodec.encode(receiver.origin(), List.of(ClusterInvalidation.EPOCH), 1_400).get(0));
+
+		assertThat(receiverVersion.current()).isEqualTo(before + 1);
+	}
+
+	@Test
+	public void largeBatchesAreSplit() {
+		List<String> keys = new ArrayList<>();
+		for (int i = 0; i < 1_000; i++) {
+			keys.add(ClusterInvalidation.MEMBER + i);
+		}
+
+		List<byte[]> payloads = InvalidationCodec.encode("origin", keys, 1_400);
+
+		assertThat(payloads).hasSizeGreaterThan(1).allMatch(payload -> payload.length <= 1_400);
+		List<String> decoded = new ArrayList<>();
+		payloads.forEach(payload -> decoded.addAll(InvalidationCodec.decode(payload).keys()));
+		assertThat(decoded).containsExactlyElementsOf(keys);
+	}
+
+	private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+}
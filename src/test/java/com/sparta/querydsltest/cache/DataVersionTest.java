@@ -0,0 +1,68 @@
+package com.sparta.querydsltest.cache;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+
+import com.sparta.querydsltest.dto.MemberSearchCondition;
+
+class DataVersionTest {
+
+	static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+
+	DataVersion dataVersion = new DataVersion();
+
+	@Test
+	public void sameConditionSameEtag() {
+		MemberSearchCondition condition1 = new MemberSearchCondition();
+		condition1.setUsername("");
+		condition1.setAgeGoe(10);
+		MemberSearchCondition condition2 = new MemberSearchCondition();
+		condition2.setAgeGoe(10);
+
+		assertThat(dataVersion.etag(condition1, PageRequest.of(0, 10), JSON))
+			.isEqualTo(dataVersion.etag(condition2, PageRequest.of(0, 10), JSON))
+			.isNotEqualTo(dataVersion.etag(condition2, PageRequest.of(1, 10), JSON));
+	}
+
+	@Test
+	public void insertChangesOnlyThatTeam() {
+		MemberSearchCondition teamA = new MemberSearchCondition();
+		teamA.setTeamName("teamA");
+		MemberSearchCondition teamB = new MemberSearchCondition();
+		teamB.setTeamName("teamB");
+		MemberSearchCondition all = new MemberSearchCondition();
+
+		String teamABefore = dataVersion.etag(teamA, PageRequest.of(0, 10), JSON);
+		String teamBBefore = dataVersion.etag(teamB, PageRequest.of(0, 10), JSON);
+		String allBefore = dataVersion.etag(all, PageRequest.of(0, 10), JSON);
+
+		dataVersion.memberInserted("teamA");
+
+		assertThat(dataVersion.etag(teamA, PageRequest.of(0, 10), JSON)).isNotEqualTo(teamABefore);
+		assertThat(dataVersion.etag(teamB, PageRequest.of(0, 10), JSON)).isEqualTo(teamBBefore);
+		assertThat(dataVersion.etag(all, PageRequest.of(0, 10), JSON)).isNotEqualTo(allBefore);
+	}
+
+	@Test
+	public void structuralChangeInvalidatesEveryTeam() {
+		MemberSearchCondition teamB = new MemberSearchCondition();
+		teamB.setTeamName("teamB");
+		String before = dataVersion.etag(teamB, PageRequest.of(0, 10), JSON);
+
+		dataVersion.structuralChange();
+
+		assertThat(dataVersion.etag(teamB, PageRequest.of(0, 10), JSON)).isNotEqualTo(before);
+	}
+
+	@Test
+	public void representationChangesEtag() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+
+		assertThat(dataVersion.etag(condition, PageRequest.of(0, 10), JSON))
+			.isEqualTo(dataVersion.etag(condition, PageRequest.of(0, 10), JSON))
+			.isNotEqualTo(dataVersion.etag(condition, PageRequest.of(0, 10), MediaType.APPLICATION_CBOR_VALUE));
+	}
+}
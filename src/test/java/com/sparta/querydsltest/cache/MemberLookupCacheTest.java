@@ -0,0 +1,114 @@
+package com.sparta.querydsltest.cache;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sparta.querydsltest.entity.Member;
+
+import jakarta.persistence.EntityManager;
+
+// 다른 노드의 쓰기처럼 엔티티 리스너를 거치지 않는 변경은 네이티브 SQL/JPQL 벌크 수정으로 만든다. (@Transactional 사용 불가)
+// 주기 작업이 테스트 중에 돌지 않도록 간격을 길게 두고, 겹침 구간을 0으로 해서 워터마크 경계를 그대로 본다.
+@SpringBootTest(properties = {
+	"member.snapshot.enabled=true",
+	"member.snapshot.path=build/member-lookup-cache-test/members.snap",
+	"member.snapshot.interval=PT1H",
+	"member.snapshot.refresh-interval=PT1H",
+	"member.snapshot.reconcile-interval=PT1H",
+	"member.snapshot.catch-up-overlap=PT0S"
+})
+class MemberLookupCacheTest {
+
+	static final long OTHER_NODE_ID = 1_000_001L;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	TransactionTemplate tx;
+
+	@Autowired
+	MemberLookupCache cache;
+
+	@AfterEach
+	public void after() {
+		tx.executeWithoutResult(status -> em.createQuery("delete from Member").executeUpdate());
+		cache.reconcile();
+	}
+
+	@Test
+	public void catchUpReadsRowsWrittenByOtherNodes() throws Exception {
+		Instant before = cache.watermark();
+		Thread.sleep(5);
+		insertFromOtherNode(OTHER_NODE_ID, "other1", "current_timestamp");
+		assertThat(cache.find(OTHER_NODE_ID)).isEmpty();
+
+		cache.refresh();
+
+		assertThat(cache.find(OTHER_NODE_ID)).hasValueSatisfying(row -> assertThat(row.getUsername()).isEqualTo("other1"));
+		assertThat(cache.watermark()).isAfter(before);
+	}
+
+	@Test
+	public void catchUpOnlyReadsSinceWatermark() {
+		// 워터마크보다 오래된 modified_at은 catch-up 대상이 아니다. (전체 재조회에서만 보인다)
+		insertFromOtherNode(OTHER_NODE_ID, "old", "dateadd('HOUR', -1, current_timestamp)");
+
+		cache.refresh();
+		assertThat(cache.find(OTHER_NODE_ID)).isEmpty();
+
+		cache.reconcile();
+		assertThat(cache.find(OTHER_NODE_ID)).isPresent();
+	}
+
+	@Test
+	public void reconcileEvictsDeletedAndBulkUpdatedRows() {
+		Member deleted = tx.execute(status -> {
+			Member member = new Member("member1", 10);
+			em.persist(member);
+			return member;
+		});
+		Member updated = tx.execute(status -> {
+			Member member = new Member("member2", 20);
+			em.persist(member);
+			return member;
+		});
+		cache.refresh();
+		assertThat(cache.find(deleted.getId())).isPresent();
+
+		// 리스너와 @UpdateTimestamp를 거치지 않는 변경
+		tx.executeWithoutResult(status -> {
+			em.createNativeQuery("delete from member where member_id = ?1")
+				.setParameter(1, deleted.getId())
+				.executeUpdate();
+			em.createQuery("update Member m set m.age = 99 where m.id = :id")
+				.setParameter("id", updated.getId())
+				.executeUpdate();
+		});
+
+		cache.refresh();
+		assertThat(cache.find(deleted.getId())).isPresent();
+		assertThat(cache.find(updated.getId())).hasValueSatisfying(row -> assertThat(row.getAge()).isEqualTo(20));
+
+		cache.reconcile();
+		assertThat(cache.find(deleted.getId())).isEmpty();
+		assertThat(cache.find(updated.getId())).hasValueSatisfying(row -> assertThat(row.getAge()).isEqualTo(99));
+	}
+
+	private void insertFromOtherNode(long id, String username, String modifiedAt) {
+		tx.executeWithoutResult(status -> em.createNativeQuery(
+				"insert into member (member_id, username, username_normalized, age, modified_at) values (?1, ?2, ?3, 30, "
+					+ modifiedAt + ")")
+			.setParameter(1, id)
+			.setParameter(2, username)
+			.setParameter(3, Member.normalizeUsername(username))
+			.executeUpdate());
+	}
+}
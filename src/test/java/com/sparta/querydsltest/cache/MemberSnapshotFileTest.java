@@ -0,0 +1,48 @@
+package com.sparta.querydsltest.cache;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MemberSnapshotFileTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	public void writeAndRead() throws Exception {
+		Map<Long, String> teams = new HashMap<>();
+		teams.put(1L, "teamA");
+		teams.put(2L, "팀B");
+		List<MemberLookupCache.MemberRow> members = List.of(
+			new MemberLookupCache.MemberRow(10L, "member1", 10, 1L),
+			new MemberLookupCache.MemberRow(11L, "회원2", 20, 2L),
+			new MemberLookupCache.MemberRow(12L, null, 30, null));
+		Path path = dir.resolve("members.snap");
+
+		MemberSnapshotFile.write(path, new MemberSnapshotFile.Snapshot(1_700_000_000_000L, teams, members));
+		MemberSnapshotFile.Snapshot read = MemberSnapshotFile.read(path);
+
+		assertThat(read.watermarkMillis()).isEqualTo(1_700_000_000_000L);
+		assertThat(read.teams()).isEqualTo(teams);
+		assertThat(read.members()).isEqualTo(members);
+		try (var files = Files.list(dir)) {
+			assertThat(files).containsExactly(path);
+		}
+	}
+
+	@Test
+	public void rejectsOtherFiles() throws Exception {
+		Path path = dir.resolve("garbage.snap");
+		Files.write(path, new byte[64]);
+
+		assertThatThrownBy(() -> MemberSnapshotFile.read(path)).isInstanceOf(java.io.IOException.class);
+	}
+}
@@ -0,0 +1,169 @@
+package com.sparta.querydsltest.controller;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.sparta.querydsltest.entity.Member;
+import com.sparta.querydsltest.entity.Team;
+import com.sparta.querydsltest.repository.SearchQueryHints;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.QueryTimeoutException;
+
+@SpringBootTest(properties = {
+	"search.request-limit.max-batch-conditions=2",
+	"search.request-limit.max-lookup-ids=2",
+	"search.result-limit.max-rows=2"
+})
+@AutoConfigureMockMvc
+@Transactional
+class MemberControllerTest {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@SpyBean
+	SearchQueryHints hints;
+
+	@Test
+	public void etagDependsOnAcceptAndVaries() throws Exception {
+		String json = mockMvc.perform(get("/v2/members").accept(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		String cbor = mockMvc.perform(get("/v2/members").accept(MediaType.APPLICATION_CBOR))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		assertThat(json).isNotNull().isNotEqualTo(cbor);
+
+		// JSON ETag로 CBOR을 요청하면 304가 아니라 CBOR 본문을 받아야 한다.
+		mockMvc.perform(get("/v2/members").accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, json))
+			.andExpect(status().isOk());
+		mockMvc.perform(get("/v2/members").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, json))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)));
+	}
+
+	@Test
+	public void batchRejectsTooManyConditions() throws Exception {
+		mockMvc.perform(post("/v1/members/batch").contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"teamName\":\"teamA\"},{\"teamName\":\"teamB\"}]"))
+			.andExpect(status().isOk());
+		mockMvc.perform(post("/v1/members/batch").contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"teamName\":\"teamA\"},{\"teamName\":\"teamB\"},{\"ageGoe\":10}]"))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.limit").value(2));
+	}
+
+	@Test
+	public void lookupRejectsTooManyIds() throws Exception {
+		mockMvc.perform(post("/v1/members/lookup").contentType(MediaType.APPLICATION_JSON).content("[1,2]"))
+			.andExpect(status().isOk());
+		mockMvc.perform(post("/v1/members/lookup").contentType(MediaType.APPLICATION_JSON).content("[1,2,3]"))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.limit").value(2));
+	}
+
+	@Test
+	public void lookupTimeoutIsGatewayTimeout() throws Exception {
+		// Hibernate가 쿼리 타임아웃에서 던지는 JPA 예외. 변환되지 않으면 500이 된다.
+		doThrow(new QueryTimeoutException("timed out")).when(hints).apply(any(JPAQuery.class), eq("findByIds"));
+
+		mockMvc.perform(post("/v1/members/lookup").contentType(MediaType.APPLICATION_JSON).content("[1,2]"))
+			.andExpect(status().isGatewayTimeout())
+			.andExpect(jsonPath("$.title").value("Query Timeout"));
+	}
+
+	@Test
+	public void v1UnderMaxRowsIsNotLimited() throws Exception {
+		saveMembers(2);
+		double streamed = limitedCount("stream");
+
+		mockMvc.perform(get("/v1/members").param("teamName", "limitedTeam").accept(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(header().doesNotExist(MemberController.TRUNCATED_HEADER))
+			.andExpect(jsonPath("$.length()").value(2));
+
+		assertThat(limitedCount("stream")).isEqualTo(streamed);
+	}
+
+	@Test
+	public void v1StreamsJsonPastMaxRows() throws Exception {
+		saveMembers(3);
+		double streamed = limitedCount("stream");
+
+		mockMvc.perform(get("/v1/members").param("teamName", "limitedTeam").accept(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(header().doesNotExist(MemberController.TRUNCATED_HEADER))
+			.andExpect(jsonPath("$.length()").value(3))
+			.andExpect(jsonPath("$[*].username").value(containsInAnyOrder(
+				"limited0", "limited1", "limited2")));
+
+		assertThat(limitedCount("stream")).isEqualTo(streamed + 1);
+	}
+
+	@Test
+	public void v1TruncatesOtherMediaTypesPastMaxRows() throws Exception {
+		saveMembers(3);
+		double truncated = limitedCount("truncate");
+
+		mockMvc.perform(get("/v1/members").param("teamName", "limitedTeam").accept(MediaType.APPLICATION_CBOR))
+			.andExpect(status().isOk())
+			.andExpect(header().string(MemberController.TRUNCATED_HEADER, "true"))
+			.andExpect(header().string(MemberController.LIMIT_HEADER, "2"));
+
+		assertThat(limitedCount("truncate")).isEqualTo(truncated + 1);
+	}
+
+	@Test
+	public void batchTruncatesEachConditionPastMaxRows() throws Exception {
+		saveMembers(3);
+
+		// 빈 조건은 전체 회원이라 잘리고, 두 번째 조건은 2건이라 그대로 온다.
+		mockMvc.perform(post("/v1/members/batch").contentType(MediaType.APPLICATION_JSON)
+				.content("[{},{\"teamName\":\"limitedTeam\",\"ageGoe\":21}]"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(MemberController.TRUNCATED_HEADER, "true"))
+			.andExpect(header().string(MemberController.TRUNCATED_CONDITIONS_HEADER, "0"))
+			.andExpect(header().string(MemberController.LIMIT_HEADER, "2"))
+			.andExpect(jsonPath("$[0].length()").value(2))
+			.andExpect(jsonPath("$[1][*].username").value(containsInAnyOrder("limited1", "limited2")));
+	}
+
+	private void saveMembers(int count) {
+		Team team = new Team("limitedTeam");
+		em.persist(team);
+		for (int i = 0; i < count; i++) {
+			em.persist(new Member("limited" + i, 20 + i, team));
+		}
+		em.flush();
+	}
+
+	private double limitedCount(String action) {
+		return meterRegistry.counter("member.search.result.limited", "endpoint", "v1", "action", action).count();
+	}
+}
@@ -0,0 +1,127 @@
+package com.sparta.querydsltest.export;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sparta.querydsltest.entity.Member;
+import com.sparta.querydsltest.entity.Team;
+import com.sparta.querydsltest.support.SqlCount;
+import com.sparta.querydsltest.support.SqlCountExtension;
+
+import jakarta.persistence.EntityManager;
+
+// 파티션마다 별도 EntityManager로 읽기 때문에 데이터를 실제로 커밋해야 한다. (@Transactional 사용 불가)
+@SpringBootTest
+@ExtendWith(SqlCountExtension.class)
+class MemberExportJobTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	TransactionTemplate tx;
+
+	@Autowired
+	MemberExportJob memberExportJob;
+
+	@TempDir
+	Path dir;
+
+	@BeforeEach
+	public void before() {
+		tx.executeWithoutResult(status -> {
+			Team teamA = new Team("teamA");
+			Team teamB = new Team("teamB");
+			em.persist(teamA);
+			em.persist(teamB);
+			for (int i = 0; i < 100; i++) {
+				em.persist(new Member("member" + (i + 1), i + 1, i % 2 == 0 ? teamA : teamB));
+			}
+			em.persist(new Member("comma, \"quoted\"", 7));
+		});
+	}
+
+	@AfterEach
+	public void after() {
+		tx.executeWithoutResult(status -> {
+			em.createQuery("delete from Member").executeUpdate();
+			em.createQuery("delete from Team").executeUpdate();
+		});
+	}
+
+	@Test
+	public void exportCsv() throws Exception {
+		Path file = dir.resolve("members.csv");
+
+		MemberExportJob.ExportResult result = memberExportJob.export(file, ExportFormat.CSV, 4);
+
+		List<String> lines = Files.readAllLines(file, UTF_8);
+		assertThat(result.rows()).isEqualTo(101);
+		assertThat(result.bytes()).isEqualTo(Files.size(file));
+		assertThat(lines).hasSize(102);
+		assertThat(lines.get(0)).isEqualTo("member_id,username,age,team_id,team_name");
+		assertThat(lines).anyMatch(line -> line.contains(",member100,100,") && line.endsWith(",teamB"));
+		assertThat(lines).anyMatch(line -> line.contains(",\"comma, \"\"quoted\"\"\",7,,"));
+		try (var files = Files.list(dir)) {
+			assertThat(files).containsExactly(file);
+		}
+	}
+
+	@Test
+	public void exportNdjsonKeepsIdOrderAcrossPartitions() throws Exception {
+		Path file = dir.resolve("members.ndjson");
+
+		memberExportJob.export(file, ExportFormat.NDJSON, 3);
+
+		List<String> lines = Files.readAllLines(file, UTF_8);
+		assertThat(lines).hasSize(101);
+		assertThat(lines.get(0)).contains("\"username\":\"member1\"", "\"teamName\":\"teamA\"");
+		assertThat(lines.get(100)).contains("\"username\":\"comma, \\\"quoted\\\"\"", "\"teamId\":null");
+	}
+
+	@Test
+	public void partitionsAreReadOnPoolThreads() throws Exception {
+		SqlCount.reset();
+
+		memberExportJob.export(dir.resolve("members.csv"), ExportFormat.CSV, 3);
+
+		// 호출한 스레드는 id 범위만 읽는다. 구간 조회는 모두 pool 스레드의 트랜잭션에서 실행됐다. (SQL 기록은 스레드 기준)
+		assertThat(SqlCount.statements()).filteredOn(sql -> sql.contains(" from member "))
+			.singleElement().asString().contains("max(");
+	}
+
+	@Test
+	public void rejectsNonPositivePartitions() {
+		assertThatThrownBy(() -> memberExportJob.export(dir.resolve("members.csv"), ExportFormat.CSV, 0))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void failureRemovesPartialFiles() throws Exception {
+		// 비어 있지 않은 디렉터리는 결과 파일로 교체할 수 없으므로 마지막 단계에서 실패한다.
+		Path target = Files.createDirectory(dir.resolve("members.csv"));
+		Files.writeString(target.resolve("keep"), "keep");
+
+		assertThatThrownBy(() -> memberExportJob.export(target, ExportFormat.CSV, 3))
+			.isInstanceOf(IOException.class);
+
+		try (var files = Files.list(dir)) {
+			assertThat(files).containsExactly(target);
+		}
+		assertThat(target.resolve("keep")).exists();
+	}
+}
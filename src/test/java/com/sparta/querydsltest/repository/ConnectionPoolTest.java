@@ -0,0 +1,70 @@
+package com.sparta.querydsltest.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import com.sparta.querydsltest.dto.MemberSearchCondition;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// 풀보다 많은 스레드가 동시에 검색해도 커넥션 대기 시간이 일정 수준을 넘지 않는지 확인한다.
+@SpringBootTest(properties = {
+	"spring.datasource.hikari.pool-name=member-pool-test",
+	"spring.datasource.hikari.maximum-pool-size=4",
+	"spring.datasource.hikari.connection-timeout=2000"
+})
+class ConnectionPoolTest {
+
+	static final int THREADS = 16;
+	static final int SEARCHES_PER_THREAD = 50;
+
+	@Autowired
+	MemberRepository memberRepository;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Test
+	public void poolWaitStaysBounded() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				int thread = i;
+				futures.add(executor.submit(() -> {
+					for (int j = 0; j < SEARCHES_PER_THREAD; j++) {
+						MemberSearchCondition condition = new MemberSearchCondition();
+						condition.setAgeGoe((thread + j) % 50);
+						memberRepository.searchPageComplex(condition, PageRequest.of(0, 10));
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		Timer acquire = meterRegistry.get("hikaricp.connections.acquire")
+			.tag("pool", "member-pool-test")
+			.timer();
+		assertThat(acquire.count()).isGreaterThanOrEqualTo(THREADS * SEARCHES_PER_THREAD);
+		assertThat(acquire.max(TimeUnit.MILLISECONDS)).isLessThan(1000);
+		assertThat(meterRegistry.get("hikaricp.connections.timeout")
+			.tag("pool", "member-pool-test")
+			.counter().count()).isZero();
+	}
+}
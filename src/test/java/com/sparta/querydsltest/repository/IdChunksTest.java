@@ -0,0 +1,33 @@
+package com.sparta.querydsltest.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+class IdChunksTest {
+
+	@Test
+	public void padsChunksToPowerOfTwo() {
+		List<Long> ids = LongStream.rangeClosed(1, 11).boxed().toList();
+
+		List<List<Long>> chunks = IdChunks.padded(ids, 8);
+
+		assertThat(chunks).hasSize(2);
+		assertThat(chunks.get(0)).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+		assertThat(chunks.get(1)).containsExactly(9L, 10L, 11L, 11L);
+	}
+
+	@Test
+	public void paddedSizes() {
+		assertThat(IdChunks.paddedSize(1)).isEqualTo(1);
+		assertThat(IdChunks.paddedSize(2)).isEqualTo(2);
+		assertThat(IdChunks.paddedSize(3)).isEqualTo(4);
+		assertThat(IdChunks.paddedSize(5)).isEqualTo(8);
+		assertThat(IdChunks.paddedSize(512)).isEqualTo(512);
+		assertThat(IdChunks.padded(List.of(), 8)).isEmpty();
+		assertThatThrownBy(() -> IdChunks.padded(List.of(1L), 100)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,88 @@
+package com.sparta.querydsltest.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sparta.querydsltest.dto.MemberAgeRankDto;
+import com.sparta.querydsltest.entity.Member;
+import com.sparta.querydsltest.entity.Team;
+
+import jakarta.persistence.EntityManager;
+
+@SpringBootTest
+@Transactional
+class MemberAnalyticsRepositoryTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	MemberAnalyticsRepository memberAnalyticsRepository;
+
+	@BeforeEach
+	public void before() {
+		Team teamA = new Team("teamA");
+		Team teamB = new Team("teamB");
+		em.persist(teamA);
+		em.persist(teamB);
+
+		em.persist(new Member("member1", 10, teamA));
+		em.persist(new Member("member2", 20, teamA));
+		em.persist(new Member("member3", 20, teamA));
+		em.persist(new Member("member4", 30, teamB));
+		em.persist(new Member("member5", 40, teamB));
+		em.persist(new Member("member6", 50));
+	}
+
+	@Test
+	public void rankByAgeInTeam() {
+		List<MemberAgeRankDto> result = memberAnalyticsRepository.rankByAgeInTeam("teamA", PageRequest.of(0, 10))
+			.getContent();
+
+		assertThat(result).extracting("username").containsExactly("member2", "member3", "member1");
+		assertThat(result).extracting("rankInTeam").containsExactly(1L, 1L, 3L);
+		assertThat(result.get(0).getTeamAvgAge()).isCloseTo(50.0 / 3, within(0.001));
+		assertThat(result.get(2).getDiffFromTeamAvg()).isCloseTo(10 - 50.0 / 3, within(0.001));
+	}
+
+	@Test
+	public void rankByAgeInAllTeamsSkipsMembersWithoutTeam() {
+		List<MemberAgeRankDto> result = memberAnalyticsRepository.rankByAgeInTeam(null, PageRequest.of(0, 10))
+			.getContent();
+
+		assertThat(result).hasSize(5);
+		assertThat(result).extracting("username").doesNotContain("member6");
+		assertThat(result).filteredOn(row -> row.getTeamName().equals("teamB"))
+			.extracting("rankInTeam").containsExactly(1L, 2L);
+	}
+
+	@Test
+	public void rankByAgeInAllTeamsIsPaged() {
+		Slice<MemberAgeRankDto> first = memberAnalyticsRepository.rankByAgeInTeam(null, PageRequest.of(0, 3));
+		Slice<MemberAgeRankDto> second = memberAnalyticsRepository.rankByAgeInTeam(null, PageRequest.of(1, 3));
+
+		assertThat(first.hasNext()).isTrue();
+		assertThat(first.getContent()).extracting("username").containsExactly("member2", "member3", "member1");
+		assertThat(second.hasNext()).isFalse();
+		// 순위와 평균은 페이지와 상관없이 팀 전체 기준이다.
+		assertThat(second.getContent()).extracting("rankInTeam").containsExactly(1L, 2L);
+		assertThat(second.getContent().get(0).getTeamAvgAge()).isCloseTo(35.0, within(0.001));
+	}
+
+	@Test
+	public void topByAgePerTeam() {
+		List<MemberAgeRankDto> result = memberAnalyticsRepository.topByAgePerTeam(1);
+
+		assertThat(result).extracting("username").containsExactly("member2", "member5");
+		assertThat(result.get(1).getDiffFromTeamAvg()).isCloseTo(5.0, within(0.001));
+	}
+}
@@ -0,0 +1,77 @@
+package com.sparta.querydsltest.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sparta.querydsltest.dto.MemberTeamDto;
+import com.sparta.querydsltest.entity.Member;
+import com.sparta.querydsltest.entity.Team;
+import com.sparta.querydsltest.support.SqlCount;
+import com.sparta.querydsltest.support.SqlCountExtension;
+
+import jakarta.persistence.EntityManager;
+
+// 병렬 조회는 묶음마다 별도 EntityManager로 읽으므로 커밋된 데이터가 필요하다. (@Transactional 사용 불가)
+@SpringBootTest(properties = {
+	"search.query.id-chunk-size=2",
+	"search.query.id-chunk-parallelism=2"
+})
+@ExtendWith(SqlCountExtension.class)
+class MemberBulkLookupTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	TransactionTemplate tx;
+
+	@Autowired
+	MemberBulkLookup memberBulkLookup;
+
+	List<Long> ids = new ArrayList<>();
+
+	@BeforeEach
+	public void before() {
+		tx.executeWithoutResult(status -> {
+			Team team = new Team("teamA");
+			em.persist(team);
+			for (int i = 0; i < 5; i++) {
+				Member member = new Member("member" + i, 10 + i, i % 2 == 0 ? team : null);
+				em.persist(member);
+				ids.add(member.getId());
+			}
+		});
+	}
+
+	@AfterEach
+	public void after() {
+		tx.executeWithoutResult(status -> {
+			em.createQuery("delete from Member").executeUpdate();
+			em.createQuery("delete from Team").executeUpdate();
+		});
+	}
+
+	@Test
+	public void parallelChunksKeepRequestOrder() {
+		SqlCount.reset();
+
+		List<MemberTeamDto> result = memberBulkLookup.findByIds(
+			List.of(ids.get(4), ids.get(1), -1L, ids.get(3), ids.get(1), ids.get(0), ids.get(2)));
+
+		assertThat(result).extracting("memberId")
+			.containsExactly(ids.get(4), ids.get(1), ids.get(3), ids.get(0), ids.get(2));
+		assertThat(result).extracting("teamName").containsExactly("teamA", null, null, "teamA", "teamA");
+		// 묶음 3개가 모두 실행 스레드에서 조회됐다. (SQL 기록은 호출한 스레드 기준)
+		assertThat(SqlCount.statements()).noneMatch(sql -> sql.contains(" from member "));
+	}
+}
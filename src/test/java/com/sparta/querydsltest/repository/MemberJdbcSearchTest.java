@@ -0,0 +1,123 @@
+package com.sparta.querydsltest.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sparta.querydsltest.dto.MemberSearchCondition;
+import com.sparta.querydsltest.dto.MemberTeamDto;
+import com.sparta.querydsltest.dto.UsernameMatch;
+import com.sparta.querydsltest.entity.Member;
+import com.sparta.querydsltest.entity.Team;
+
+import jakarta.persistence.EntityManager;
+
+// JDBC 구현이 JPA 구현과 같은 조건 규칙으로 같은 결과를 내는지 비교한다.
+@SpringBootTest
+@Transactional
+class MemberJdbcSearchTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	MemberRepository memberRepository;
+
+	@Autowired
+	MemberJdbcSearch memberJdbcSearch;
+
+	@BeforeEach
+	public void before() {
+		Team teamA = new Team("teamA");
+		Team teamB = new Team("teamB");
+		em.persist(teamA);
+		em.persist(teamB);
+		em.persist(new Member("Member1", 10, teamA));
+		em.persist(new Member("member2", 20, teamA));
+		em.persist(new Member("member3", 30, teamB));
+		em.persist(new Member("member_4", 40, teamB));
+		em.persist(new Member("memberX4", 50));
+		em.flush();
+	}
+
+	@Test
+	public void searchMatchesJpa() {
+		for (MemberSearchCondition condition : List.of(
+			new MemberSearchCondition(),
+			condition("member2", null, null, null, null),
+			condition(null, "teamB", 35, null, null),
+			condition(null, null, 20, 40, null),
+			condition("", "", null, null, null),
+			condition("MEMBER1", null, null, null, UsernameMatch.IGNORE_CASE),
+			condition("MEMBER_", null, null, null, UsernameMatch.PREFIX_IGNORE_CASE))) {
+			assertThat(sorted(memberJdbcSearch.search(condition)))
+				.as(condition.toString())
+				.usingRecursiveFieldByFieldElementComparator()
+				.containsExactlyElementsOf(sorted(memberRepository.search(condition)));
+		}
+		assertThat(memberJdbcSearch.search(condition("member_", null, null, null, UsernameMatch.PREFIX_IGNORE_CASE)))
+			.extracting("username").containsExactly("member_4");
+	}
+
+	@Test
+	public void searchWithLimitMatchesJpa() {
+		MemberSearchCondition condition = condition(null, null, 20, null, null);
+
+		List<MemberTeamDto> result = memberJdbcSearch.search(condition, 2);
+
+		assertThat(result).extracting("username").containsExactly("member2", "member3", "member_4");
+		assertThat(result).usingRecursiveFieldByFieldElementComparator()
+			.containsExactlyElementsOf(memberRepository.search(condition, 2));
+	}
+
+	@Test
+	public void namesComeFromEntityMapping() {
+		MemberJdbcSearch.Names names = MemberJdbcSearch.Names.of(em.getEntityManagerFactory());
+
+		assertThat(names).isEqualTo(new MemberJdbcSearch.Names("member", "member_id", "username",
+			"username_normalized", "age", "team_id", "team", "team_id", "name"));
+	}
+
+	@Test
+	public void timeoutRoundsUpToSeconds() {
+		assertThat(MemberJdbcSearch.timeoutSeconds(Duration.ofMillis(100))).isEqualTo(1);
+		assertThat(MemberJdbcSearch.timeoutSeconds(Duration.ofMillis(1_500))).isEqualTo(2);
+		assertThat(MemberJdbcSearch.timeoutSeconds(Duration.ofSeconds(5))).isEqualTo(5);
+	}
+
+	@Test
+	public void searchPageSimple() {
+		MemberSearchCondition condition = condition(null, null, 20, null, null);
+
+		Page<MemberTeamDto> page = memberJdbcSearch.searchPageSimple(condition, PageRequest.of(1, 2));
+
+		assertThat(page.getTotalElements()).isEqualTo(4);
+		assertThat(page.getContent()).hasSize(2);
+		assertThat(page.getContent()).allMatch(row -> row.getAge() >= 20);
+	}
+
+	private static MemberSearchCondition condition(String username, String teamName, Integer ageGoe, Integer ageLoe,
+		UsernameMatch match) {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setUsername(username);
+		condition.setTeamName(teamName);
+		condition.setAgeGoe(ageGoe);
+		condition.setAgeLoe(ageLoe);
+		condition.setUsernameMatch(match);
+		return condition;
+	}
+
+	private static List<MemberTeamDto> sorted(List<MemberTeamDto> rows) {
+		return rows.stream().sorted(Comparator.comparing(MemberTeamDto::getMemberId)).toList();
+	}
+}
@@ -2,9 +2,11 @@ package com.sparta.querydsltest.repository;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,11 +15,14 @@ import com.sparta.querydsltest.dto.MemberSearchCondition;
 import com.sparta.querydsltest.dto.MemberTeamDto;
 import com.sparta.querydsltest.entity.Member;
 import com.sparta.querydsltest.entity.Team;
+import com.sparta.querydsltest.support.ExpectedSql;
+import com.sparta.querydsltest.support.SqlCountExtension;
 
 import jakarta.persistence.EntityManager;
 
 @SpringBootTest
 @Transactional
+@ExtendWith(SqlCountExtension.class)
 class MemberJpaRepositoryTest {
 
 	@Autowired
@@ -27,6 +32,7 @@ class MemberJpaRepositoryTest {
 	MemberJpaRepository memberJpaRepository;
 
 	@Test
+	@ExpectedSql(select = 2, insert = 1)
 	public void basicTest() {
 		Member member = new Member("member1", 10);
 		memberJpaRepository.save(member);
@@ -42,6 +48,7 @@ class MemberJpaRepositoryTest {
 	}
 
 	@Test
+	@ExpectedSql(select = 2, insert = 1)
 	public void basicQuerydslTest() {
 		Member member = new Member("member1", 10);
 		memberJpaRepository.save(member);
@@ -57,6 +64,7 @@ class MemberJpaRepositoryTest {
 	}
 
 	@Test
+	@ExpectedSql(select = 1, insert = 6)
 	public void searchTest() {
 		Team teamA = new Team("teamA");
 		Team teamB = new Team("teamB");
@@ -83,6 +91,7 @@ class MemberJpaRepositoryTest {
 	}
 
 	@Test
+	@ExpectedSql(select = 1, insert = 6)
 	public void search() {
 		Team teamA = new Team("teamA");
 		Team teamB = new Team("teamB");
@@ -107,4 +116,25 @@ class MemberJpaRepositoryTest {
 		List<MemberTeamDto> result = memberJpaRepository.search(condition);
 		assertThat(result).extracting("username").containsExactly("member4");
 	}
-}
\ No newline at end of file
+
+	@Test
+	@ExpectedSql(select = 2, insert = 4)
+	public void findByIds() {
+		List<Member> members = new ArrayList<>();
+		for (int i = 1; i <= 4; i++) {
+			Member member = new Member("member" + i, i * 10);
+			memberJpaRepository.save(member);
+			members.add(member);
+		}
+		em.flush();
+		em.clear();
+		// 영속성 컨텍스트에 있는 회원은 IN 조회에서 빠진다.
+		Member member2 = memberJpaRepository.findById(members.get(1).getId()).get();
+
+		List<Member> result = memberJpaRepository.findByIds(List.of(members.get(3).getId(), members.get(1).getId(),
+			-1L, members.get(0).getId(), members.get(3).getId()));
+
+		assertThat(result).extracting("username").containsExactly("member4", "member2", "member1");
+		assertThat(result.get(1)).isSameAs(member2);
+	}
+}
@@ -4,25 +4,35 @@ import static com.sparta.querydsltest.entity.QMember.*;
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.sparta.querydsltest.dto.ApproximateCount;
 import com.sparta.querydsltest.dto.MemberSearchCondition;
+import com.sparta.querydsltest.dto.MemberTeamColumns;
 import com.sparta.querydsltest.dto.MemberTeamDto;
+import com.sparta.querydsltest.dto.UsernameMatch;
 import com.sparta.querydsltest.entity.Member;
 import com.sparta.querydsltest.entity.QMember;
 import com.sparta.querydsltest.entity.Team;
+import com.sparta.querydsltest.support.ExpectedSql;
+import com.sparta.querydsltest.support.SqlCount;
+import com.sparta.querydsltest.support.SqlCountExtension;
 
 import jakarta.persistence.EntityManager;
 
 @SpringBootTest
 @Transactional
+@ExtendWith(SqlCountExtension.class)
 class MemberRepositoryTest {
 	@Autowired
 	EntityManager em;
@@ -30,7 +40,11 @@ class MemberRepositoryTest {
 	@Autowired
 	MemberRepository memberRepository;
 
+	@Autowired
+	SearchQueryProperties searchQueryProperties;
+
 	@Test
+	@ExpectedSql(select = 2, insert = 1)
 	public void basicTest() {
 		Member member = new Member("member1", 10);
 		memberRepository.save(member);
@@ -46,8 +60,252 @@ class MemberRepositoryTest {
 	}
 
 	@Test
+	@ExpectedSql(select = 1, insert = 0)
 	public void querydslPredicateExecutorTest() {
 		Iterable<Member> member1 = memberRepository.findAll(
 			member.age.between(20, 40).and(member.username.eq("member1")));
 	}
-}
\ No newline at end of file
+
+	@Test
+	@ExpectedSql(select = 2, insert = 6)
+	public void searchBatch() {
+		Team teamA = new Team("teamA");
+		Team teamB = new Team("teamB");
+		em.persist(teamA);
+		em.persist(teamB);
+
+		em.persist(new Member("member1", 10, teamA));
+		em.persist(new Member("member2", 20, teamA));
+		em.persist(new Member("member3", 30, teamB));
+		em.persist(new Member("member4", 40, teamB));
+
+		MemberSearchCondition byTeamA = new MemberSearchCondition();
+		byTeamA.setTeamName("teamA");
+		MemberSearchCondition byTeamB = new MemberSearchCondition();
+		byTeamB.setTeamName("teamB");
+		MemberSearchCondition olderInTeamB = new MemberSearchCondition();
+		olderInTeamB.setTeamName("teamB");
+		olderInTeamB.setAgeGoe(35);
+		MemberSearchCondition youngerInTeamA = new MemberSearchCondition();
+		youngerInTeamA.setTeamName("teamA");
+		youngerInTeamA.setAgeLoe(15);
+
+		List<List<MemberTeamDto>> result = memberRepository.searchBatch(
+			List.of(byTeamA, olderInTeamB, byTeamB, youngerInTeamA), 10);
+
+		assertThat(result).hasSize(4);
+		assertThat(result.get(0)).extracting("username").containsExactly("member1", "member2");
+		assertThat(result.get(1)).extracting("username").containsExactly("member4");
+		assertThat(result.get(2)).extracting("username").containsExactly("member3", "member4");
+		assertThat(result.get(3)).extracting("username").containsExactly("member1");
+	}
+
+	@Test
+	@ExpectedSql(select = 2, insert = 8)
+	public void searchBatchReadsLimitPlusOnePerCondition() {
+		Team teamA = new Team("teamA");
+		Team teamB = new Team("teamB");
+		em.persist(teamA);
+		em.persist(teamB);
+		for (int i = 0; i < 3; i++) {
+			em.persist(new Member("a" + i, 10 + i, teamA));
+			em.persist(new Member("b" + i, 10 + i, teamB));
+		}
+
+		MemberSearchCondition byTeamA = new MemberSearchCondition();
+		byTeamA.setTeamName("teamA");
+		MemberSearchCondition byTeamB = new MemberSearchCondition();
+		byTeamB.setTeamName("teamB");
+		// 혼자인 묶음은 SQL limit으로, 여러 조건 묶음은 조건이 모두 찰 때까지 읽는다.
+		MemberSearchCondition adultsInTeamB = new MemberSearchCondition();
+		adultsInTeamB.setTeamName("teamB");
+		adultsInTeamB.setAgeGoe(10);
+
+		List<List<MemberTeamDto>> result = memberRepository.searchBatch(List.of(byTeamA, byTeamB, adultsInTeamB), 1);
+
+		// 조건마다 id 순으로 limit + 1건
+		assertThat(result.get(0)).extracting("username").containsExactly("a0", "a1");
+		assertThat(result.get(1)).extracting("username").containsExactly("b0", "b1");
+		assertThat(result.get(2)).extracting("username").containsExactly("b0", "b1");
+	}
+
+	@Test
+	@ExpectedSql(select = 1, insert = 3)
+	public void searchBatchGroupsUsernamesIntoInList() {
+		em.persist(new Member("member1", 10));
+		em.persist(new Member("member2", 20));
+		em.persist(new Member("member3", 30));
+
+		List<MemberSearchCondition> conditions = new ArrayList<>();
+		for (String username : List.of("member3", "nobody", "member1", "member3")) {
+			MemberSearchCondition condition = new MemberSearchCondition();
+			condition.setUsername(username);
+			conditions.add(condition);
+		}
+
+		List<List<MemberTeamDto>> result = memberRepository.searchBatch(conditions, 10);
+
+		assertThat(result).hasSize(4);
+		assertThat(result.get(0)).extracting("username").containsExactly("member3");
+		assertThat(result.get(1)).isEmpty();
+		assertThat(result.get(2)).extracting("username").containsExactly("member1");
+		assertThat(result.get(3)).extracting("username").containsExactly("member3");
+		// 회원명만 다른 조건들은 OR 묶음이 아니라 IN 절 하나로 조회한다.
+		assertThat(SqlCount.statements()).filteredOn(sql -> sql.contains(" from member "))
+			.singleElement().asString().contains(" in (").doesNotContain(" or ");
+	}
+
+	@Test
+	@ExpectedSql(select = 1, insert = 5)
+	public void searchColumns() {
+		Team teamA = new Team("teamA");
+		Team teamB = new Team("teamB");
+		em.persist(teamA);
+		em.persist(teamB);
+
+		em.persist(new Member("member1", 10, teamA));
+		em.persist(new Member("member2", 20, teamB));
+		em.persist(new Member("member3", 30));
+
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setAgeGoe(10);
+
+		MemberTeamColumns columns = memberRepository.searchColumns(condition);
+
+		assertThat(columns.size()).isEqualTo(3);
+		assertThat(columns.teamNames()).containsExactlyInAnyOrder("teamA", "teamB");
+
+		int ageSum = 0;
+		MemberTeamColumns.Cursor cursor = columns.cursor();
+		while (cursor.next()) {
+			ageSum += cursor.age();
+			if (cursor.username().equals("member3")) {
+				assertThat(cursor.hasTeam()).isFalse();
+				assertThat(cursor.teamName()).isNull();
+			} else {
+				assertThat(cursor.teamId()).isIn(teamA.getId(), teamB.getId());
+			}
+		}
+		assertThat(ageSum).isEqualTo(60);
+		assertThat(columns.teamName(indexOf(columns, "member2"))).isEqualTo("teamB");
+	}
+
+	@Test
+	@ExpectedSql(select = 2, insert = 5, maxSameSelect = 2)
+	public void searchSliceWithoutCountQuery() {
+		Team teamA = new Team("teamA");
+		em.persist(teamA);
+		for (int i = 1; i <= 4; i++) {
+			em.persist(new Member("member" + i, i * 10, teamA));
+		}
+
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("teamA");
+
+		Slice<MemberTeamDto> first = memberRepository.searchSlice(condition, PageRequest.of(0, 3));
+		Slice<MemberTeamDto> last = memberRepository.searchSlice(condition, PageRequest.of(1, 3));
+
+		assertThat(first.getContent()).extracting("username").containsExactly("member1", "member2", "member3");
+		assertThat(first.hasNext()).isTrue();
+		assertThat(last.getContent()).extracting("username").containsExactly("member4");
+		assertThat(last.hasNext()).isFalse();
+	}
+
+	@Test
+	public void approximateCount() {
+		Team teamA = new Team("teamA");
+		em.persist(teamA);
+		for (int i = 1; i <= 4; i++) {
+			em.persist(new Member("member" + i, i * 10, teamA));
+		}
+
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setAgeGoe(20);
+
+		ApproximateCount counted = memberRepository.approximateCount(condition);
+		ApproximateCount estimated = memberRepository.approximateCount(new MemberSearchCondition());
+
+		assertThat(counted).isEqualTo(new ApproximateCount(3, ApproximateCount.Kind.EXACT));
+		assertThat(estimated.kind()).isEqualTo(ApproximateCount.Kind.ESTIMATE);
+		assertThat(estimated.isApproximate()).isTrue();
+	}
+
+	@Test
+	@ExpectedSql(select = 1, insert = 4)
+	public void searchWithLimitReadsOneExtraRow() {
+		for (int i = 1; i <= 4; i++) {
+			memberRepository.save(new Member("member" + i, i * 10));
+		}
+
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setAgeGoe(20);
+		List<MemberTeamDto> result = memberRepository.search(condition, 2);
+
+		assertThat(result).extracting("username").containsExactly("member2", "member3", "member4");
+	}
+
+	@Test
+	@ExpectedSql(select = 1, insert = 4)
+	public void approximateCountStopsAtCap() {
+		for (int i = 1; i <= 4; i++) {
+			em.persist(new Member("member" + i, i * 10));
+		}
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setAgeGoe(10);
+
+		int cap = searchQueryProperties.getApproximateCountCap();
+		searchQueryProperties.setApproximateCountCap(2);
+		try {
+			assertThat(memberRepository.approximateCount(condition))
+				.isEqualTo(new ApproximateCount(2, ApproximateCount.Kind.AT_LEAST));
+		} finally {
+			searchQueryProperties.setApproximateCountCap(cap);
+		}
+		// 건수만 DB에서 세고 id 목록은 가져오지 않는다.
+		assertThat(SqlCount.statements()).filteredOn(sql -> sql.contains(" from member "))
+			.singleElement().asString().startsWith("select count(");
+	}
+
+	@Test
+	public void searchUsernameIgnoreCase() {
+		em.persist(new Member("Member1", 10));
+		em.persist(new Member("member10", 20));
+		em.persist(new Member("other", 30));
+
+		MemberSearchCondition exact = new MemberSearchCondition();
+		exact.setUsername("MEMBER1");
+		exact.setUsernameMatch(UsernameMatch.IGNORE_CASE);
+		MemberSearchCondition prefix = new MemberSearchCondition();
+		prefix.setUsername("mEm");
+		prefix.setUsernameMatch(UsernameMatch.PREFIX_IGNORE_CASE);
+		MemberSearchCondition caseSensitive = new MemberSearchCondition();
+		caseSensitive.setUsername("MEMBER1");
+
+		assertThat(memberRepository.search(exact)).extracting("username").containsExactly("Member1");
+		assertThat(memberRepository.search(prefix)).extracting("username")
+			.containsExactlyInAnyOrder("Member1", "member10");
+		assertThat(memberRepository.search(caseSensitive)).isEmpty();
+		assertThat(memberRepository.searchBatch(List.of(exact, prefix), 10))
+			.extracting(List::size)
+			.containsExactly(1, 2);
+	}
+
+	// 검색이 만드는 조건(= ?, like ? escape '!')이 username_normalized 인덱스를 쓰는지 H2 실행 계획으로 확인한다.
+	@Test
+	public void usernameNormalizedUsesIndex() {
+		String eqPlan = (String)em.createNativeQuery(
+			"explain select member_id from member where username_normalized = 'member1'").getSingleResult();
+		String prefixPlan = (String)em.createNativeQuery(
+			"explain select member_id from member where username_normalized like 'mem%' escape '!'").getSingleResult();
+		String lowerPlan = (String)em.createNativeQuery(
+			"explain select member_id from member where lower(username) = 'member1'").getSingleResult();
+
+		assertThat(eqPlan).containsIgnoringCase("IDX_MEMBER_USERNAME_NORMALIZED");
+		assertThat(prefixPlan).containsIgnoringCase("IDX_MEMBER_USERNAME_NORMALIZED");
+		assertThat(lowerPlan).doesNotContainIgnoringCase("IDX_MEMBER_USERNAME_NORMALIZED");
+	}
+
+	private int indexOf(MemberTeamColumns columns, String username) {
+		return List.of(columns.usernames()).indexOf(username);
+	}
+}
@@ -0,0 +1,42 @@
+package com.sparta.querydsltest.repository;
+
+import static com.sparta.querydsltest.entity.QMember.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+
+import jakarta.persistence.Query;
+
+@SpringBootTest
+@Transactional
+class SearchQueryHintsTest {
+
+	@Autowired
+	JPAQueryFactory queryFactory;
+
+	@Test
+	public void perMethodTimeoutAndFetchSize() {
+		SearchQueryProperties properties = new SearchQueryProperties();
+		properties.setTimeout(Duration.ofSeconds(3));
+		properties.getTimeouts().put("searchBatch", Duration.ofSeconds(7));
+		SearchQueryHints hints = new SearchQueryHints(properties);
+
+		Query search = hints.apply(queryFactory.selectFrom(member), "search").createQuery();
+		Query batch = hints.apply(queryFactory.selectFrom(member), "searchBatch").createQuery();
+		Query stream = hints.apply(queryFactory.selectFrom(member), "streamSearch").createQuery();
+
+		Map<String, Object> searchHints = search.getHints();
+		assertThat(searchHints).containsEntry(SearchQueryHints.TIMEOUT_HINT, 3000);
+		assertThat(searchHints).containsEntry(SearchQueryHints.FETCH_SIZE_HINT, 100);
+		assertThat(batch.getHints()).containsEntry(SearchQueryHints.TIMEOUT_HINT, 7000);
+		assertThat(stream.getHints()).containsEntry(SearchQueryHints.FETCH_SIZE_HINT, 1000);
+	}
+}
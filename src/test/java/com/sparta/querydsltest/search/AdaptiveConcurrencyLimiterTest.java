@@ -0,0 +1,67 @@
+package com.sparta.querydsltest.search;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	AtomicLong now = new AtomicLong();
+	SearchLimiterProperties properties = new SearchLimiterProperties();
+
+	@Test
+	public void rejectsAboveLimit() {
+		properties.setInitialLimit(2);
+		AdaptiveConcurrencyLimiter limiter = limiter();
+
+		assertThatThrownBy(() -> limiter.execute("v3",
+			() -> limiter.execute("v3",
+				() -> limiter.execute("v3", () -> "third"))))
+			.isInstanceOf(SearchRejectedException.class);
+		assertThat(limiter.getInFlight()).isZero();
+	}
+
+	@Test
+	public void lowerPriorityEndpointIsShedFirst() {
+		properties.setInitialLimit(2);
+		properties.getShares().put("v1", 0.5);
+		AdaptiveConcurrencyLimiter limiter = limiter();
+
+		String result = limiter.execute("v3", () -> limiter.execute("v3", () -> "ok"));
+		assertThat(result).isEqualTo("ok");
+
+		assertThatThrownBy(() -> limiter.execute("v3", () -> limiter.execute("v1", () -> "shed")))
+			.isInstanceOf(SearchRejectedException.class)
+			.hasFieldOrPropertyWithValue("endpoint", "v1");
+	}
+
+	@Test
+	public void limitShrinksWhenLatencyGrows() {
+		properties.setInitialLimit(50);
+		AdaptiveConcurrencyLimiter limiter = limiter();
+		for (int i = 0; i < 20; i++) {
+			search(limiter, 10);
+		}
+		double steady = limiter.getLimit();
+
+		for (int i = 0; i < 20; i++) {
+			search(limiter, 200);
+		}
+
+		assertThat(limiter.getLimit()).isLessThan(steady);
+		assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(properties.getMinLimit());
+	}
+
+	private void search(AdaptiveConcurrencyLimiter limiter, long millis) {
+		limiter.execute("v3", () -> now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis)));
+	}
+
+	private AdaptiveConcurrencyLimiter limiter() {
+		return new AdaptiveConcurrencyLimiter(properties, new SimpleMeterRegistry(), now::get);
+	}
+}
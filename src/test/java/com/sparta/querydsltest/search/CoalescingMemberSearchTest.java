@@ -0,0 +1,111 @@
+package com.sparta.querydsltest.search;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import com.sparta.querydsltest.dto.MemberSearchCondition;
+import com.sparta.querydsltest.dto.MemberTeamDto;
+import com.sparta.querydsltest.repository.MemberRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CoalescingMemberSearchTest {
+
+	MemberRepository memberRepository = mock(MemberRepository.class);
+	SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	CoalescingMemberSearch coalescingMemberSearch = new CoalescingMemberSearch(memberRepository, meterRegistry);
+
+	@Test
+	public void identicalConcurrentSearchesShareOneQuery() throws Exception {
+		Page<MemberTeamDto> page = new PageImpl<>(List.of(new MemberTeamDto(1L, "member1", 10, 1L, "teamA")));
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(memberRepository.searchPageComplex(any(), any())).thenAnswer(invocation -> {
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return page;
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(5);
+		try {
+			List<Future<Page<MemberTeamDto>>> results = new ArrayList<>();
+			results.add(executor.submit(() -> coalescingMemberSearch.searchPageComplex(condition(), PageRequest.of(0, 10))));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			for (int i = 0; i < 4; i++) {
+				results.add(executor.submit(() -> coalescingMemberSearch.searchPageComplex(condition(), PageRequest.of(0, 10))));
+			}
+			while (coalesced() < 4) {
+				Thread.sleep(1);
+			}
+			release.countDown();
+
+			for (Future<Page<MemberTeamDto>> result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(page);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		verify(memberRepository, times(1)).searchPageComplex(any(), any());
+	}
+
+	@Test
+	public void sequentialSearchesAreNotCached() {
+		when(memberRepository.searchPageComplex(any(), any())).thenReturn(new PageImpl<>(List.of()));
+
+		coalescingMemberSearch.searchPageComplex(condition(), PageRequest.of(0, 10));
+		coalescingMemberSearch.searchPageComplex(condition(), PageRequest.of(0, 10));
+
+		verify(memberRepository, times(2)).searchPageComplex(any(), any());
+		assertThat(coalesced()).isZero();
+	}
+
+	@Test
+	public void limitedSearchesWithDifferentLimitsAreNotShared() throws Exception {
+		CountDownLatch started = new CountDownLatch(2);
+		CountDownLatch release = new CountDownLatch(1);
+		when(memberRepository.search(any(), anyInt())).thenAnswer(invocation -> {
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return List.of();
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<List<MemberTeamDto>> two = executor.submit(() -> coalescingMemberSearch.search(condition(), 2));
+			Future<List<MemberTeamDto>> three = executor.submit(() -> coalescingMemberSearch.search(condition(), 3));
+			// 둘 다 실행 중이 되어야 한다. (같은 키였다면 하나는 기다리기만 한다)
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			release.countDown();
+			two.get(5, TimeUnit.SECONDS);
+			three.get(5, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+		verify(memberRepository).search(any(), eq(2));
+		verify(memberRepository).search(any(), eq(3));
+	}
+
+	private MemberSearchCondition condition() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("teamA");
+		return condition;
+	}
+
+	private double coalesced() {
+		return meterRegistry.counter("member.search.coalesced", "method", "searchPageComplex").count();
+	}
+}
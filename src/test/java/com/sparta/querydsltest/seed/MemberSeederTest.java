@@ -0,0 +1,83 @@
+package com.sparta.querydsltest.seed;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+
+import jakarta.persistence.EntityManager;
+
+// 청크마다 커밋하므로 @Transactional 대신 직접 정리한다.
+@SpringBootTest
+class MemberSeederTest {
+
+	@Autowired
+	EntityManager em;
+
+	@Autowired
+	TransactionTemplate tx;
+
+	@Autowired
+	JPAQueryFactory queryFactory;
+
+	@AfterEach
+	public void after() {
+		tx.executeWithoutResult(status -> {
+			em.createQuery("delete from Member").executeUpdate();
+			em.createQuery("delete from Team").executeUpdate();
+		});
+	}
+
+	@Test
+	public void seedInChunks() {
+		MemberSeeder seeder = seeder(3, 25, 10);
+
+		seeder.seed();
+
+		assertThat(seeder.getState()).isEqualTo(MemberSeeder.State.COMPLETED);
+		assertThat(seeder.getSeeded()).isEqualTo(25);
+		assertThat(count("select count(t) from Team t")).isEqualTo(3);
+		assertThat(count("select count(m) from Member m")).isEqualTo(25);
+		assertThat(count("select count(m) from Member m where m.team.name = 'teamC'")).isEqualTo(8);
+	}
+
+	@Test
+	public void resumeFromExistingRows() {
+		seeder(2, 30, 7).seed();
+
+		MemberSeeder resumed = seeder(2, 50, 7);
+		resumed.seed();
+
+		assertThat(resumed.getSeeded()).isEqualTo(50);
+		assertThat(count("select count(t) from Team t")).isEqualTo(2);
+		assertThat(count("select count(distinct m.username) from Member m")).isEqualTo(50);
+	}
+
+	@Test
+	public void disabled() {
+		MemberSeeder seeder = new MemberSeeder(new SeedProperties(), tx, em, queryFactory);
+
+		seeder.start();
+
+		assertThat(seeder.getState()).isEqualTo(MemberSeeder.State.DISABLED);
+		assertThat(new SeedHealthIndicator(seeder).health().getStatus().getCode()).isEqualTo("UP");
+	}
+
+	private MemberSeeder seeder(int teams, long members, int batchSize) {
+		SeedProperties properties = new SeedProperties();
+		properties.setEnabled(true);
+		properties.setTeams(teams);
+		properties.setMembers(members);
+		properties.setBatchSize(batchSize);
+		return new MemberSeeder(properties, tx, em, queryFactory);
+	}
+
+	private long count(String jpql) {
+		return em.createQuery(jpql, Long.class).getSingleResult();
+	}
+}
@@ -0,0 +1,199 @@
+package com.sparta.querydsltest.shard;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import com.sparta.querydsltest.dto.ApproximateCount;
+import com.sparta.querydsltest.dto.MemberAgeRankDto;
+import com.sparta.querydsltest.dto.MemberSearchCondition;
+import com.sparta.querydsltest.dto.MemberTeamDto;
+import com.sparta.querydsltest.web.RequestLimitExceededException;
+
+// 샤드마다 별도 트랜잭션으로 커밋하므로 @Transactional을 쓰지 않고 직접 정리한다.
+@SpringBootTest(properties = {
+	"shard.enabled=true",
+	"shard.ddl-auto=create",
+	"shard.nodes[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+	"shard.nodes[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+	"shard.max-page-window=8"
+})
+class ShardedMemberSearchTest {
+
+	@Autowired
+	ShardRegistry registry;
+
+	@Autowired
+	ShardRouter router;
+
+	@Autowired
+	ShardedMemberWriter writer;
+
+	@Autowired
+	ShardedMemberSearch search;
+
+	// 두 샤드에 나뉘어 들어가는 팀 이름
+	String teamOnShard0;
+	String teamOnShard1;
+
+	@BeforeEach
+	public void before() {
+		teamOnShard0 = teamOn(0);
+		teamOnShard1 = teamOn(1);
+		for (int i = 0; i < 10; i++) {
+			writer.saveMember("member" + i, 10 + i, i % 2 == 0 ? teamOnShard0 : teamOnShard1);
+		}
+	}
+
+	@AfterEach
+	public void after() {
+		for (ShardRegistry.Shard shard : registry.shards()) {
+			shard.tx().executeWithoutResult(status -> {
+				shard.em().createQuery("delete from Member").executeUpdate();
+				shard.em().createQuery("delete from Team").executeUpdate();
+			});
+		}
+	}
+
+	@Test
+	public void routesTeamsToShards() {
+		for (ShardRegistry.Shard shard : registry.shards()) {
+			Long members = shard.tx().execute(status ->
+				shard.em().createQuery("select count(m) from Member m", Long.class).getSingleResult());
+			assertThat(members).isEqualTo(5);
+		}
+	}
+
+	@Test
+	public void searchMergesShardsInIdOrder() {
+		List<MemberTeamDto> result = search.search(new MemberSearchCondition());
+
+		assertThat(result).hasSize(10);
+		assertThat(result).isSortedAccordingTo((a, b) -> Long.compare(a.getMemberId(), b.getMemberId()));
+		Set<Long> ids = new HashSet<>();
+		result.forEach(row -> ids.add(row.getMemberId()));
+		assertThat(ids).hasSize(10);
+		assertThat(result).extracting("teamName").contains(teamOnShard0, teamOnShard1);
+	}
+
+	@Test
+	public void searchByTeamNameQueriesOneShard() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName(teamOnShard1);
+		condition.setAgeGoe(15);
+
+		List<MemberTeamDto> result = search.search(condition);
+
+		assertThat(result).extracting("username").containsExactly("member5", "member7", "member9");
+	}
+
+	@Test
+	public void searchWithLimitReturnsFirstLimitPlusOneRows() {
+		List<MemberTeamDto> all = search.search(new MemberSearchCondition());
+
+		List<MemberTeamDto> result = search.search(new MemberSearchCondition(), 3);
+
+		assertThat(result).extracting("memberId")
+			.containsExactlyElementsOf(all.subList(0, 4).stream().map(MemberTeamDto::getMemberId).toList());
+	}
+
+	@Test
+	public void searchPageSpansShards() {
+		List<MemberTeamDto> all = search.search(new MemberSearchCondition());
+
+		Page<MemberTeamDto> page = search.searchPage(new MemberSearchCondition(), PageRequest.of(1, 4));
+
+		assertThat(page.getTotalElements()).isEqualTo(10);
+		assertThat(page.getTotalPages()).isEqualTo(3);
+		assertThat(page.getContent()).extracting("memberId")
+			.containsExactlyElementsOf(all.subList(4, 8).stream().map(MemberTeamDto::getMemberId).toList());
+	}
+
+	@Test
+	public void pageDepthIsCapped() {
+		assertThatThrownBy(() -> search.searchPage(new MemberSearchCondition(), PageRequest.of(2, 4)))
+			.isInstanceOf(RequestLimitExceededException.class);
+		assertThatThrownBy(() -> search.searchSlice(new MemberSearchCondition(), PageRequest.of(1, 5)))
+			.isInstanceOf(RequestLimitExceededException.class);
+	}
+
+	@Test
+	public void searchSliceSpansShards() {
+		List<MemberTeamDto> all = search.search(new MemberSearchCondition());
+
+		Slice<MemberTeamDto> slice = search.searchSlice(new MemberSearchCondition(), PageRequest.of(1, 4));
+
+		assertThat(slice.hasNext()).isTrue();
+		assertThat(slice.getContent()).extracting("memberId")
+			.containsExactlyElementsOf(all.subList(4, 8).stream().map(MemberTeamDto::getMemberId).toList());
+	}
+
+	@Test
+	public void approximateCountSumsShards() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setAgeGoe(12);
+
+		assertThat(search.approximateCount(condition))
+			.isEqualTo(new ApproximateCount(8, ApproximateCount.Kind.EXACT));
+	}
+
+	@Test
+	public void searchBatchMergesEachCondition() {
+		MemberSearchCondition young = new MemberSearchCondition();
+		young.setAgeLoe(11);
+		MemberSearchCondition team1 = new MemberSearchCondition();
+		team1.setTeamName(teamOnShard1);
+
+		List<List<MemberTeamDto>> result = search.searchBatch(List.of(young, team1), 10);
+
+		assertThat(result.get(0)).extracting("username").containsExactly("member0", "member1");
+		assertThat(result.get(1)).extracting("username")
+			.containsExactly("member1", "member3", "member5", "member7", "member9");
+	}
+
+	@Test
+	public void findByIdsRoutesByIdBlock() {
+		List<MemberTeamDto> all = search.search(new MemberSearchCondition());
+		Long onShard0 = all.stream().filter(row -> row.getTeamName().equals(teamOnShard0)).findFirst().orElseThrow().getMemberId();
+		Long onShard1 = all.stream().filter(row -> row.getTeamName().equals(teamOnShard1)).findFirst().orElseThrow().getMemberId();
+
+		List<MemberTeamDto> result = search.findByIds(List.of(onShard1, -1L, onShard0, onShard1));
+
+		assertThat(result).extracting("memberId").containsExactly(onShard1, onShard0);
+	}
+
+	@Test
+	public void rankByAgeInAllTeamsMergesShards() {
+		Slice<MemberAgeRankDto> first = search.rankByAgeInTeam(null, PageRequest.of(0, 6));
+		Slice<MemberAgeRankDto> second = search.rankByAgeInTeam(null, PageRequest.of(1, 4));
+
+		assertThat(first.hasNext()).isTrue();
+		assertThat(first.getContent()).hasSize(6);
+		assertThat(first.getContent().get(0).getRankInTeam()).isEqualTo(1);
+		assertThat(first.getContent().get(0).getAge()).isEqualTo(
+			first.getContent().get(0).getTeamName().equals(teamOnShard0) ? 18 : 19);
+		assertThat(second.getContent()).hasSize(4);
+		assertThat(second.hasNext()).isTrue();
+		assertThat(search.topByAgePerTeam(1)).extracting("age").containsExactlyInAnyOrder(18, 19);
+	}
+
+	private String teamOn(int shard) {
+		for (int i = 0; ; i++) {
+			String name = "team" + i;
+			if (ShardRouter.indexFor(name, registry.size()) == shard) {
+				return name;
+			}
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.sparta.querydsltest.sqlbudget;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+class SqlBudgetFilterTest {
+
+	SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	List<String> inspected = new ArrayList<>();
+	// 테스트 yml의 SqlStatementCounter처럼 먼저 설정된 inspector도 계속 호출되는지 본다.
+	SqlBudgetInspector inspector = new SqlBudgetInspector(sql -> {
+		inspected.add(sql);
+		return sql;
+	});
+
+	@Test
+	public void logModeCountsAndReportsOverBudget() throws Exception {
+		SqlBudgetProperties properties = new SqlBudgetProperties();
+		properties.setEndpoints(Map.of("GET /v1/members/analytics/age-rank", 2));
+
+		run(properties, "/v1/members/analytics/age-rank", 3);
+
+		assertThat(meterRegistry.get("sql.budget.statements").tag("endpoint", "GET /v1/members/analytics/age-rank")
+			.summary().totalAmount()).isEqualTo(3);
+		assertThat(meterRegistry.get("sql.budget.exceeded").tag("endpoint", "GET /v1/members/analytics/age-rank")
+			.counter().count()).isEqualTo(1);
+		assertThat(inspected).hasSize(3);
+	}
+
+	@Test
+	public void withinBudgetIsNotReported() throws Exception {
+		run(new SqlBudgetProperties(), "/v1/members", 3);
+
+		assertThat(meterRegistry.find("sql.budget.exceeded").counter()).isNull();
+	}
+
+	@Test
+	public void rejectModeFailsAtFirstStatementOverBudget() {
+		SqlBudgetProperties properties = new SqlBudgetProperties();
+		properties.setMode(SqlBudgetProperties.Mode.REJECT);
+		properties.setMaxStatements(2);
+
+		assertThatThrownBy(() -> run(properties, "/v2/members", 5))
+			.isInstanceOf(SqlBudgetExceededException.class)
+			.hasMessageContaining("GET /v2/members");
+		assertThat(inspected).hasSize(2);
+	}
+
+	@Test
+	public void unsampledRequestsAreNotCounted() throws Exception {
+		SqlBudgetProperties properties = new SqlBudgetProperties();
+		properties.setSampleRate(0.0);
+
+		run(properties, "/v1/members", 20);
+
+		assertThat(meterRegistry.find("sql.budget.statements").summary()).isNull();
+		assertThat(inspected).hasSize(20);
+	}
+
+	@Test
+	public void shapeIgnoresWhitespaceAndInListSize() {
+		assertThat(SqlBudget.shapeOf("select m1_0.member_id\n  from member m1_0 where m1_0.member_id in (?, ?,?)"))
+			.isEqualTo(SqlBudget.shapeOf("select m1_0.member_id from member m1_0 where m1_0.member_id in (?,?)"))
+			.isEqualTo("select m1_0.member_id from member m1_0 where m1_0.member_id in (?...)");
+	}
+
+	private void run(SqlBudgetProperties properties, String pattern, int statements) throws Exception {
+		SqlBudgetFilter filter = new SqlBudgetFilter(properties, meterRegistry);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", pattern);
+		FilterChain chain = (req, res) -> {
+			req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+			for (int i = 0; i < statements; i++) {
+				inspector.inspect("select m1_0.team_id from team m1_0 where m1_0.team_id=?");
+			}
+		};
+		filter.doFilter(request, new MockHttpServletResponse(), chain);
+	}
+}
@@ -0,0 +1,21 @@
+package com.sparta.querydsltest.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 테스트 메서드 전체에서 실행될 SQL 수. -1은 검사하지 않는다.
+ * SqlCountExtension이 테스트가 끝난 뒤 검증한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExpectedSql {
+	int select() default -1;
+	int insert() default -1;
+	int update() default -1;
+	int delete() default -1;
+	// 같은 select가 이 횟수를 넘게 실행되면 N+1로 보고 실패한다.
+	int maxSameSelect() default 1;
+}
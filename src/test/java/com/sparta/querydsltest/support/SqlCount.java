@@ -0,0 +1,84 @@
+package com.sparta.querydsltest.support;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 테스트에서 실행된 SQL 수를 검증한다. (SqlCountExtension과 함께 사용)
+ * 시퀀스 조회(select next value for ...)는 id 할당 시점에 따라 달라지므로 select 수에서 제외한다.
+ */
+public final class SqlCount {
+
+	private SqlCount() {
+	}
+
+	public static void reset() {
+		SqlStatementCounter.statements().clear();
+	}
+
+	public static List<String> statements() {
+		return List.copyOf(SqlStatementCounter.statements());
+	}
+
+	public static void assertSelectCount(int expected) {
+		assertCount("select", expected);
+	}
+
+	public static void assertInsertCount(int expected) {
+		assertCount("insert", expected);
+	}
+
+	public static void assertUpdateCount(int expected) {
+		assertCount("update", expected);
+	}
+
+	public static void assertDeleteCount(int expected) {
+		assertCount("delete", expected);
+	}
+
+	// 같은 select가 maxRepeats번을 넘게 실행되면 N+1로 본다.
+	public static void assertNoNPlusOne(int maxRepeats) {
+		Map<String, Integer> repeats = new LinkedHashMap<>();
+		for (String sql : SqlStatementCounter.statements()) {
+			if (typeOf(sql).equals("select")) {
+				repeats.merge(normalize(sql), 1, Integer::sum);
+			}
+		}
+		repeats.forEach((shape, count) -> assertThat(count)
+			.as("N+1 의심: 같은 select가 %d번 실행됨%n%s", count, shape)
+			.isLessThanOrEqualTo(maxRepeats));
+	}
+
+	static int count(String type) {
+		int count = 0;
+		for (String sql : SqlStatementCounter.statements()) {
+			if (typeOf(sql).equals(type)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static void assertCount(String type, int expected) {
+		assertThat(count(type))
+			.as("%s 쿼리 수%n%s", type, String.join("\n", SqlStatementCounter.statements()))
+			.isEqualTo(expected);
+	}
+
+	static String typeOf(String sql) {
+		String normalized = normalize(sql).toLowerCase(Locale.ROOT);
+		if (normalized.contains("next value for") || normalized.contains("nextval(")) {
+			return "sequence";
+		}
+		int space = normalized.indexOf(' ');
+		return space > 0 ? normalized.substring(0, space) : normalized;
+	}
+
+	private static String normalize(String sql) {
+		return sql.trim().replaceAll("\\s+", " ");
+	}
+}
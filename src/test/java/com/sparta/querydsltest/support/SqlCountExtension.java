@@ -0,0 +1,45 @@
+package com.sparta.querydsltest.support;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * 테스트 메서드마다 SQL 기록을 새로 시작하고, @ExpectedSql이 있으면 끝난 뒤 수를 검증한다.
+ * 테스트 코드 중간에 SqlCount.reset() / SqlCount.assertXxx()로 구간별로 검증할 수도 있다.
+ */
+public class SqlCountExtension implements BeforeEachCallback, AfterEachCallback {
+
+	@Override
+	public void beforeEach(ExtensionContext context) {
+		SqlStatementCounter.start();
+	}
+
+	@Override
+	public void afterEach(ExtensionContext context) {
+		try {
+			if (context.getExecutionException().isPresent()) {
+				return;
+			}
+			ExpectedSql expected = context.getRequiredTestMethod().getAnnotation(ExpectedSql.class);
+			if (expected == null) {
+				return;
+			}
+			if (expected.select() >= 0) {
+				SqlCount.assertSelectCount(expected.select());
+			}
+			if (expected.insert() >= 0) {
+				SqlCount.assertInsertCount(expected.insert());
+			}
+			if (expected.update() >= 0) {
+				SqlCount.assertUpdateCount(expected.update());
+			}
+			if (expected.delete() >= 0) {
+				SqlCount.assertDeleteCount(expected.delete());
+			}
+			SqlCount.assertNoNPlusOne(expected.maxSameSelect());
+		} finally {
+			SqlStatementCounter.stop();
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.sparta.querydsltest.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate가 실행하는 SQL을 현재 스레드 기준으로 기록한다.
+ * test application.yml의 hibernate.session_factory.statement_inspector로 등록되며,
+ * SqlCountExtension이 기록을 시작한 스레드에서만 기록한다.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+	private static final ThreadLocal<List<String>> RECORDING = new ThreadLocal<>();
+
+	@Override
+	public String inspect(String sql) {
+		List<String> statements = RECORDING.get();
+		if (statements != null) {
+			statements.add(sql);
+		}
+		return sql;
+	}
+
+	static void start() {
+		RECORDING.set(new ArrayList<>());
+	}
+
+	static void stop() {
+		RECORDING.remove();
+	}
+
+	static List<String> statements() {
+		List<String> statements = RECORDING.get();
+		if (statements == null) {
+			throw new IllegalStateException("SQL 기록이 시작되지 않았습니다. @ExtendWith(SqlCountExtension.class)를 확인하세요.");
+		}
+		return statements;
+	}
+}
@@ -0,0 +1,72 @@
+package com.sparta.querydsltest.warmup;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sparta.querydsltest.dto.MemberSearchCondition;
+import com.sparta.querydsltest.repository.MemberJpaRepository;
+import com.sparta.querydsltest.repository.MemberRepository;
+import com.sparta.querydsltest.support.SqlCount;
+import com.sparta.querydsltest.support.SqlCountExtension;
+import com.sparta.querydsltest.web.MemberTeamJsonWriter;
+
+@SpringBootTest
+@Transactional
+@ExtendWith(SqlCountExtension.class)
+class SearchWarmUpTest {
+
+	@Autowired
+	MemberJpaRepository memberJpaRepository;
+
+	@Autowired
+	MemberRepository memberRepository;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	MemberTeamJsonWriter jsonWriter;
+
+	@Test
+	public void conditionShapes() {
+		MemberSearchCondition none = SearchWarmUp.conditionOf(0);
+		MemberSearchCondition all = SearchWarmUp.conditionOf(15);
+		MemberSearchCondition teamAndAgeLoe = SearchWarmUp.conditionOf(2 | 8);
+
+		assertThat(none).isEqualTo(new MemberSearchCondition());
+		assertThat(all.getUsername()).isNotNull();
+		assertThat(all.getAgeLoe()).isNotNull();
+		assertThat(teamAndAgeLoe.getUsername()).isNull();
+		assertThat(teamAndAgeLoe.getTeamName()).isNotNull();
+		assertThat(teamAndAgeLoe.getAgeGoe()).isNull();
+		assertThat(teamAndAgeLoe.getAgeLoe()).isNotNull();
+	}
+
+	@Test
+	public void runsEveryShapeWithContentAndCountQueries() {
+		WarmUpProperties properties = new WarmUpProperties();
+		properties.setEnabled(true);
+		properties.setQueryRounds(1);
+		properties.setSerializationRounds(1);
+		SearchWarmUp warmUp = new SearchWarmUp(properties, memberJpaRepository, memberRepository, objectMapper,
+			jsonWriter);
+
+		warmUp.warmUp();
+
+		assertThat(warmUp.getState()).isEqualTo(SearchWarmUp.State.COMPLETED);
+		assertThat(SqlCount.statements())
+			.filteredOn(sql -> sql.toLowerCase().contains("count("))
+			.hasSizeGreaterThanOrEqualTo(SearchWarmUp.SHAPES * 3);
+		// /v1 건수 제한 조회 (id 순 + limit)
+		assertThat(SqlCount.statements())
+			.filteredOn(sql -> sql.toLowerCase().contains("order by"))
+			.hasSize(SearchWarmUp.SHAPES);
+		assertThat(SqlCount.statements().stream().distinct().count()).isGreaterThanOrEqualTo(SearchWarmUp.SHAPES * 2);
+	}
+}
@@ -0,0 +1,83 @@
+package com.sparta.querydsltest.web;
+
+import static com.sparta.querydsltest.entity.QMember.*;
+import static com.sparta.querydsltest.entity.QTeam.*;
+import static java.nio.charset.StandardCharsets.*;
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QTuple;
+import com.sparta.querydsltest.dto.MemberTeamDto;
+
+class MemberTeamJsonWriterTest {
+
+	static final QTuple ROW = Projections.tuple(member.id, member.username, member.age, team.id, team.name);
+
+	ObjectMapper objectMapper = new ObjectMapper();
+	MemberTeamJsonWriter writer = new MemberTeamJsonWriter(objectMapper);
+
+	@Test
+	public void listMatchesDtoSerialization() throws Exception {
+		List<Tuple> rows = List.of(
+			ROW.newInstance(1L, "member1", 10, 100L, "teamA"),
+			ROW.newInstance(2L, "회원 \"2\"", 20, 100L, "teamA"),
+			ROW.newInstance(3L, "member3", 30, null, null));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		long count = writer.writeList(rows.stream(), out);
+
+		String expected = objectMapper.writeValueAsString(List.of(
+			new MemberTeamDto(1L, "member1", 10, 100L, "teamA"),
+			new MemberTeamDto(2L, "회원 \"2\"", 20, 100L, "teamA"),
+			new MemberTeamDto(3L, "member3", 30, null, null)));
+		assertThat(count).isEqualTo(3);
+		assertThat(out.toString(UTF_8)).isEqualTo(expected);
+	}
+
+	@Test
+	public void closesStream() throws Exception {
+		boolean[] closed = {false};
+		Stream<Tuple> rows = Stream.<Tuple>empty().onClose(() -> closed[0] = true);
+
+		writer.writeList(rows, new ByteArrayOutputStream());
+
+		assertThat(closed[0]).isTrue();
+	}
+
+	@Test
+	public void pageMatchesPageImplSerialization() throws Exception {
+		List<Tuple> rows = List.of(
+			ROW.newInstance(11L, "member11", 11, 100L, "teamA"),
+			ROW.newInstance(12L, "member12", 12, null, null));
+		List<MemberTeamDto> dtos = List.of(
+			new MemberTeamDto(11L, "member11", 11, 100L, "teamA"),
+			new MemberTeamDto(12L, "member12", 12, null, null));
+
+		assertSameBytes(new PageImpl<>(rows, PageRequest.of(5, 2), 100),
+			new PageImpl<>(dtos, PageRequest.of(5, 2), 100));
+		// 마지막 페이지, 정렬 있는 페이지, 빈 페이지
+		PageRequest sorted = PageRequest.of(0, 10, Sort.by("age").descending());
+		assertSameBytes(new PageImpl<>(rows, sorted, 2), new PageImpl<>(dtos, sorted, 2));
+		assertSameBytes(new PageImpl<>(List.of(), PageRequest.of(3, 10), 20),
+			new PageImpl<>(List.of(), PageRequest.of(3, 10), 20));
+	}
+
+	private void assertSameBytes(PageImpl<Tuple> rows, PageImpl<MemberTeamDto> dtos) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		writer.writePage(rows, out);
+
+		assertThat(out.toByteArray()).isEqualTo(objectMapper.writeValueAsBytes(dtos));
+	}
+}
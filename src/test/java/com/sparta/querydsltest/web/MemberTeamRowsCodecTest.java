@@ -0,0 +1,43 @@
+package com.sparta.querydsltest.web;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import com.sparta.querydsltest.dto.MemberTeamDto;
+
+class MemberTeamRowsCodecTest {
+
+	@Test
+	public void listRoundTrip() {
+		List<MemberTeamDto> rows = List.of(
+			new MemberTeamDto(1L, "member1", 10, 100L, "teamA"),
+			new MemberTeamDto(2L, "회원2", 20, 100L, "teamA"),
+			new MemberTeamDto(3L, "member3", 30, 200L, "teamB"),
+			new MemberTeamDto(4L, null, 0, null, null));
+
+		List<MemberTeamDto> decoded = MemberTeamRowsCodec.decodeList(MemberTeamRowsCodec.encode(rows));
+
+		assertThat(decoded).isEqualTo(rows);
+	}
+
+	@Test
+	public void pageRoundTrip() {
+		List<MemberTeamDto> rows = List.of(
+			new MemberTeamDto(11L, "member11", 11, 100L, "teamA"),
+			new MemberTeamDto(12L, "member12", 12, 200L, "teamB"));
+		Page<MemberTeamDto> page = new PageImpl<>(rows, PageRequest.of(5, 2), 100);
+
+		Page<MemberTeamDto> decoded = MemberTeamRowsCodec.decodePage(MemberTeamRowsCodec.encode(page));
+
+		assertThat(decoded.getContent()).isEqualTo(rows);
+		assertThat(decoded.getNumber()).isEqualTo(5);
+		assertThat(decoded.getSize()).isEqualTo(2);
+		assertThat(decoded.getTotalElements()).isEqualTo(100);
+	}
+}